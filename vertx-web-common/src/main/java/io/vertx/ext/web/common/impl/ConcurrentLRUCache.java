@@ -0,0 +1,449 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.common.impl;
+
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded concurrent map evicting the least recently used entries.
+ * <p>
+ * Entries live in a {@link ConcurrentHashMap}, the access order is kept in a doubly linked list guarded by a lock.
+ * Reads never block: they record the accessed entry in a striped, lossy ring buffer that is replayed on the list in
+ * batches by whichever thread manages to acquire the lock. Writes and evictions update the list under the lock in
+ * O(1), so many event loops can share a cache without contending on every lookup.
+ * <p>
+ * The cache is bounded by number of entries or, when created with a weigher, by the total weight of its entries.
+ * <p>
+ * Hits, misses and evictions are counted, see {@link #hits()}, {@link #misses()} and {@link #evictions()}.
+ * <p>
+ * This class is thread-safe
+ */
+public class ConcurrentLRUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, Shareable {
+
+  // number of recorded reads per stripe that triggers a replay
+  private static final int DRAIN_THRESHOLD = 32;
+  private static final int READ_BUFFER_SIZE = 128;
+  private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+  private static final int READ_BUFFER_STRIPES = stripes();
+
+  private final ConcurrentHashMap<K, Node<K, V>> data;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ReadBuffer[] readBuffers;
+  private final ToLongFunction<? super V> weigher;
+
+  // the access order, least recently used first, guarded by the lock
+  private final Node<K, V> head = new Node<>(null, null, 0);
+  private int linked;
+  private long weight;
+
+  private volatile long maxWeight;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public ConcurrentLRUCache(int maxSize) {
+    this(16, maxSize);
+  }
+
+  public ConcurrentLRUCache(int initialCapacity, int maxSize) {
+    this(initialCapacity, maxSize, null);
+  }
+
+  /**
+   * Create a cache bounded by the total weight of its entries.
+   *
+   * @param maxWeight the maximum total weight
+   * @param weigher computes the weight of a value, it must not change while the value is cached
+   */
+  public ConcurrentLRUCache(long maxWeight, ToLongFunction<? super V> weigher) {
+    this(16, maxWeight, Objects.requireNonNull(weigher));
+  }
+
+  private ConcurrentLRUCache(int initialCapacity, long maxWeight, ToLongFunction<? super V> weigher) {
+    checkSize(maxWeight);
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.data = new ConcurrentHashMap<>(initialCapacity);
+    this.readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+    for (int i = 0; i < readBuffers.length; i++) {
+      readBuffers[i] = new ReadBuffer();
+    }
+    head.prev = head;
+    head.next = head;
+  }
+
+  public void setMaxSize(long maxSize) {
+    checkSize(maxSize);
+    this.maxWeight = maxSize;
+    lock.lock();
+    try {
+      evict();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the maximum number of entries, or total weight when the cache has a weigher
+   */
+  public long getMaxSize() {
+    return maxWeight;
+  }
+
+  /**
+   * @return the total weight of the entries, this is the number of entries when the cache has no weigher
+   */
+  public long weight() {
+    lock.lock();
+    try {
+      return weight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public V get(Object key) {
+    final Node<K, V> node = data.get(key);
+    if (node == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    afterRead(node);
+    return node.value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return data.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return data.size();
+  }
+
+  @Override
+  public V put(K key, V value) {
+    Objects.requireNonNull(value);
+    final Node<K, V> node = newNode(key, value);
+    final Node<K, V> prior = data.put(key, node);
+    afterWrite(node, prior);
+    return prior == null ? null : prior.value;
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    Objects.requireNonNull(value);
+    final Node<K, V> node = newNode(key, value);
+    final Node<K, V> prior = data.putIfAbsent(key, node);
+    if (prior != null) {
+      afterRead(prior);
+      return prior.value;
+    }
+    afterWrite(node, null);
+    return null;
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    Objects.requireNonNull(value);
+    final Node<K, V> node = newNode(key, value);
+    final Node<K, V> prior = data.replace(key, node);
+    if (prior == null) {
+      return null;
+    }
+    afterWrite(node, prior);
+    return prior.value;
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    Objects.requireNonNull(newValue);
+    final Node<K, V> prior = data.get(key);
+    if (prior == null || !prior.value.equals(oldValue)) {
+      return false;
+    }
+    final Node<K, V> node = newNode(key, newValue);
+    if (data.replace(key, prior, node)) {
+      afterWrite(node, prior);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public V remove(Object key) {
+    final Node<K, V> node = data.remove(key);
+    if (node == null) {
+      return null;
+    }
+    afterRemove(node);
+    return node.value;
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    final Node<K, V> node = data.get(key);
+    if (node == null || !node.value.equals(value)) {
+      return false;
+    }
+    if (data.remove(key, node)) {
+      afterRemove(node);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void clear() {
+    lock.lock();
+    try {
+      // only remove what is linked, concurrent writers link their own entries once they get the lock
+      Node<K, V> node = head.next;
+      while (node != head) {
+        final Node<K, V> next = node.next;
+        unlink(node);
+        data.remove(node.key, node);
+        node = next;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<Entry<K, V>>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        final Iterator<Node<K, V>> it = data.values().iterator();
+        return new Iterator<Entry<K, V>>() {
+          private Node<K, V> current;
+
+          @Override
+          public boolean hasNext() {
+            return it.hasNext();
+          }
+
+          @Override
+          public Entry<K, V> next() {
+            current = it.next();
+            return new SimpleImmutableEntry<>(current.key, current.value);
+          }
+
+          @Override
+          public void remove() {
+            if (current == null) {
+              throw new IllegalStateException();
+            }
+            ConcurrentLRUCache.this.remove(current.key, current.value);
+            current = null;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return data.size();
+      }
+    };
+  }
+
+  /**
+   * @return the number of lookups that found an entry
+   */
+  public long hits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of lookups that did not find an entry
+   */
+  public long misses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of entries evicted to honour the maximum size
+   */
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return the number of entries tracked in the access order, this is the size once all writes have completed
+   */
+  public int queueSize() {
+    lock.lock();
+    try {
+      return linked;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Node<K, V> newNode(K key, V value) {
+    return new Node<>(key, value, weigher == null ? 1 : weigher.applyAsLong(value));
+  }
+
+  private void afterRead(Node<K, V> node) {
+    final ReadBuffer buffer = readBuffers[(int) Thread.currentThread().getId() & (READ_BUFFER_STRIPES - 1)];
+    final long writes = buffer.record(node);
+    if (writes - buffer.reads >= DRAIN_THRESHOLD && lock.tryLock()) {
+      try {
+        drainReadBuffers();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  private void afterWrite(Node<K, V> node, Node<K, V> prior) {
+    lock.lock();
+    try {
+      if (prior != null) {
+        unlink(prior);
+      }
+      // a concurrent remove or put may already have replaced the node
+      if (data.get(node.key) == node) {
+        linkLast(node);
+      }
+      drainReadBuffers();
+      evict();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void afterRemove(Node<K, V> node) {
+    lock.lock();
+    try {
+      unlink(node);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // guarded by the lock
+  private void drainReadBuffers() {
+    for (ReadBuffer buffer : readBuffers) {
+      final long writes = buffer.writes.get();
+      // older reads were overwritten, the buffer is lossy
+      long read = Math.max(buffer.reads, writes - READ_BUFFER_SIZE);
+      for (; read < writes; read++) {
+        @SuppressWarnings("unchecked")
+        final Node<K, V> node = (Node<K, V>) buffer.nodes.getAndSet((int) (read & READ_BUFFER_MASK), null);
+        if (node != null && node.linked) {
+          unlink(node);
+          linkLast(node);
+        }
+      }
+      buffer.reads = writes;
+    }
+  }
+
+  // guarded by the lock
+  private void evict() {
+    while (weight > maxWeight && head.next != head) {
+      final Node<K, V> eldest = head.next;
+      unlink(eldest);
+      if (data.remove(eldest.key, eldest)) {
+        evictions.increment();
+      }
+    }
+  }
+
+  // guarded by the lock
+  private void linkLast(Node<K, V> node) {
+    if (node.linked) {
+      return;
+    }
+    node.prev = head.prev;
+    node.next = head;
+    head.prev.next = node;
+    head.prev = node;
+    node.linked = true;
+    linked++;
+    weight += node.weight;
+  }
+
+  // guarded by the lock
+  private void unlink(Node<K, V> node) {
+    if (!node.linked) {
+      return;
+    }
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.prev = null;
+    node.next = null;
+    node.linked = false;
+    linked--;
+    weight -= node.weight;
+  }
+
+  private static void checkSize(long maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be >= 1");
+    }
+  }
+
+  private static int stripes() {
+    // next power of two of the available processors, capped to keep the drain cheap
+    final int n = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+    return Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    final V value;
+    final long weight;
+    // guarded by the lock
+    Node<K, V> prev;
+    Node<K, V> next;
+    boolean linked;
+
+    Node(K key, V value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  private static final class ReadBuffer {
+    final AtomicReferenceArray<Object> nodes = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    final AtomicLong writes = new AtomicLong();
+    // guarded by the lock
+    volatile long reads;
+
+    long record(Object node) {
+      final long index = writes.getAndIncrement();
+      nodes.lazySet((int) (index & READ_BUFFER_MASK), node);
+      return index + 1;
+    }
+  }
+}
@@ -19,6 +19,7 @@ package io.vertx.ext.web.common.template;
 import io.vertx.core.Vertx;
 import io.vertx.core.shareddata.LocalMap;
 import io.vertx.ext.web.common.WebEnvironment;
+import io.vertx.ext.web.common.impl.ConcurrentLRUCache;
 import io.vertx.ext.web.common.template.impl.TemplateHolder;
 
 import java.util.Objects;
@@ -28,12 +29,20 @@ import java.util.Objects;
  */
 public abstract class CachingTemplateEngine<T> implements TemplateEngine {
 
-  private final LocalMap<String, TemplateHolder<T>> cache;
+  /**
+   * The default maximum number of templates kept in the cache shared by the engines of a Vert.x instance.
+   */
+  public static final int DEFAULT_MAX_CACHE_SIZE = 10000;
+
+  private static final String CACHE_MAP = "__vertx.web.template.cache";
+  private static final String CACHE_KEY = "templates";
+
+  private final ConcurrentLRUCache<String, TemplateHolder<?>> cache;
   protected String extension;
 
   protected CachingTemplateEngine(Vertx vertx, String ext) {
     if (!WebEnvironment.development()) {
-      cache = vertx.sharedData().getLocalMap("__vertx.web.template.cache");
+      cache = sharedCache(vertx);
     } else {
       cache = null;
     }
@@ -42,22 +51,38 @@ public abstract class CachingTemplateEngine<T> implements TemplateEngine {
     this.extension = ext.charAt(0) == '.' ? ext : "." + ext;
   }
 
+  @SuppressWarnings("unchecked")
   public TemplateHolder<T> getTemplate(String filename) {
     if (cache != null) {
-      return cache.get(filename);
+      return (TemplateHolder<T>) cache.get(filename);
     }
 
     return null;
   }
 
+  @SuppressWarnings("unchecked")
   public TemplateHolder<T> putTemplate(String filename, TemplateHolder<T> templateHolder) {
     if (cache != null) {
-      return cache.put(filename, templateHolder);
+      return (TemplateHolder<T>) cache.put(filename, templateHolder);
     }
 
     return null;
   }
 
+  private static ConcurrentLRUCache<String, TemplateHolder<?>> sharedCache(Vertx vertx) {
+    // a single bounded cache is shared by all the engines, the local map only holds it
+    final LocalMap<String, ConcurrentLRUCache<String, TemplateHolder<?>>> map = vertx.sharedData().getLocalMap(CACHE_MAP);
+    ConcurrentLRUCache<String, TemplateHolder<?>> cache = map.get(CACHE_KEY);
+    if (cache == null) {
+      cache = new ConcurrentLRUCache<>(DEFAULT_MAX_CACHE_SIZE);
+      final ConcurrentLRUCache<String, TemplateHolder<?>> existing = map.putIfAbsent(CACHE_KEY, cache);
+      if (existing != null) {
+        cache = existing;
+      }
+    }
+    return cache;
+  }
+
   protected String adjustLocation(String location) {
     if (extension != null) {
       if (!location.endsWith(extension)) {
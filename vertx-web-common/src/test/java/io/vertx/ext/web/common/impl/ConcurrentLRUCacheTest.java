@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.common.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentLRUCacheTest {
+
+  private final int maxSize = 10;
+  private ConcurrentLRUCache<String, String> cache;
+
+  @Before
+  public void setUp() {
+    cache = new ConcurrentLRUCache<>(maxSize);
+  }
+
+  @Test
+  public void testPut() {
+    for (int i = 0; i < maxSize * 2; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+    assertEquals(maxSize, cache.size());
+    assertEquals(maxSize, cache.queueSize());
+    for (int i = maxSize; i < maxSize * 2; i++) {
+      assertTrue(cache.containsKey("key" + i));
+    }
+  }
+
+  @Test
+  public void testRemove() {
+    for (int i = 0; i < maxSize; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+    for (int i = 0; i < maxSize; i++) {
+      assertEquals("value" + i, cache.remove("key" + i));
+    }
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.queueSize());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    new ConcurrentLRUCache<>(0);
+  }
+
+  @Test
+  public void testSetMaxSize() {
+    for (int i = 0; i < maxSize; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+    cache.setMaxSize(maxSize / 2);
+    assertEquals(maxSize / 2, cache.size());
+    assertFalse(cache.containsKey("key0"));
+    assertTrue(cache.containsKey("key" + (maxSize - 1)));
+    cache.setMaxSize(maxSize);
+    for (int i = 0; i < maxSize; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+    assertEquals(maxSize, cache.size());
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsed() {
+    for (int i = 0; i < maxSize; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+    // key0 is now the most recently used
+    assertEquals("value0", cache.get("key0"));
+    cache.put("key" + maxSize, "value" + maxSize);
+    assertEquals(maxSize, cache.size());
+    assertTrue(cache.containsKey("key0"));
+    assertFalse(cache.containsKey("key1"));
+  }
+
+  @Test
+  public void testWeigher() {
+    ConcurrentLRUCache<String, String> weighted = new ConcurrentLRUCache<>(10, String::length);
+    weighted.put("a", "aaaa");
+    weighted.put("b", "bbbb");
+    assertEquals(8, weighted.weight());
+    weighted.put("c", "cccc");
+    assertEquals(8, weighted.weight());
+    assertFalse(weighted.containsKey("a"));
+    // replacing a value updates the weight
+    weighted.put("b", "b");
+    assertEquals(5, weighted.weight());
+  }
+
+  @Test
+  public void testCounters() {
+    for (int i = 0; i < maxSize + 5; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+    assertNull(cache.get("key0"));
+    assertEquals("value" + maxSize, cache.get("key" + maxSize));
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.misses());
+    assertEquals(5, cache.evictions());
+  }
+
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      int offset = t;
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          String key = "key" + ((i * 7 + offset) % (maxSize * 3));
+          if (cache.get(key) == null) {
+            cache.put(key, "value");
+          }
+          if (i % 13 == 0) {
+            cache.remove(key);
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(cache.size() <= maxSize);
+    assertEquals(cache.size(), cache.queueSize());
+  }
+}
@@ -18,60 +18,69 @@ package io.vertx.ext.web.sstore.cookie.impl;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.VertxContextPRNG;
-import io.vertx.ext.web.sstore.AbstractSession;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
 
 import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * A session stored in a signed cookie. The cookie holds the session serialized like the clustered sessions, cookies
+ * holding the JSON encoding of the previous versions are still read.
+ *
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
  */
-public class CookieSession extends AbstractSession {
+public class CookieSession extends SharedDataSessionImpl {
 
   private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
   private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
 
-  private final Mac mac;
+  private final ThreadLocal<Mac> mac;
   // track the original version
   private int oldVersion = 0;
-  // track the original crc
-  private int oldCrc = 0;
+  // the signed value of the session while it does not change
+  private String value;
+  private int valueVersion;
 
-  public CookieSession(Mac mac, VertxContextPRNG prng, long timeout, int length) {
+  public CookieSession(ThreadLocal<Mac> mac, VertxContextPRNG prng, long timeout, int length) {
     super(prng, timeout, length);
     this.mac = mac;
   }
 
-  public CookieSession(Mac mac, VertxContextPRNG prng) {
+  public CookieSession(ThreadLocal<Mac> mac, VertxContextPRNG prng) {
     super(prng);
     this.mac = mac;
   }
 
   @Override
   public String value() {
+    final String cached = value;
+    if (cached != null && !isDirty() && valueVersion == version()) {
+      // no need to sign it again
+      return cached;
+    }
 
-    Buffer payload = new JsonObject()
-      .put("id", id())
-      .put("timeout", timeout())
-      .put("lastAccessed", lastAccessed())
-      .put("version", version())
-      .put("data", data())
-      .toBuffer();
+    Buffer payload = Buffer.buffer();
+    writeToBuffer(payload);
 
     String b64 = ENCODER.encodeToString(payload.getBytes());
-    String signature = ENCODER.encodeToString(mac.doFinal(b64.getBytes()));
+    String signature = ENCODER.encodeToString(mac.get().doFinal(b64.getBytes(StandardCharsets.US_ASCII)));
 
-    return b64 + "." + signature;
+    final String signed = b64 + "." + signature;
+    if (!isDirty()) {
+      value = signed;
+      valueVersion = version();
+    }
+    return signed;
   }
 
   @Override
   public boolean isRegenerated() {
-    if (!super.isRegenerated()) {
-      // force a new checksum calculation
-      return oldCrc != checksum();
-    }
-
-    return true;
+    // a modified session must be sent again in a new cookie
+    return super.isRegenerated() || isDirty();
   }
 
 
@@ -81,31 +90,51 @@ public class CookieSession extends AbstractSession {
       throw new NullPointerException();
     }
 
-    String[] tokens = payload.split("\\.");
-    if (tokens.length != 2) {
+    final int dot = payload.indexOf('.');
+    if (dot == -1 || payload.indexOf('.', dot + 1) != -1) {
       // no signature present, force a regeneration
       // by claiming this session as invalid
       return null;
     }
 
-    String signature = ENCODER.encodeToString(mac.doFinal(tokens[0].getBytes()));
+    final String b64 = payload.substring(0, dot);
+    final byte[] signature = mac.get().doFinal(b64.getBytes(StandardCharsets.US_ASCII));
 
-    if(!signature.equals(tokens[1])) {
+    if (!MessageDigest.isEqual(signature, DECODER.decode(payload.substring(dot + 1)))) {
       throw new RuntimeException("Session data was Tampered!");
     }
 
     // reconstruct the session
-    JsonObject decoded = new JsonObject(Buffer.buffer(DECODER.decode(tokens[0])));
-
-    setId(decoded.getString("id"));
-    setTimeout(decoded.getLong("timeout"));
-    setLastAccessed(decoded.getLong("lastAccessed"));
-    setVersion(decoded.getInteger("version"));
-    setData(decoded.getJsonObject("data"));
+    final byte[] bytes = DECODER.decode(b64);
+    if (bytes.length > 0 && bytes[0] == '{') {
+      // JSON encoding of the previous versions
+      JsonObject decoded = new JsonObject(Buffer.buffer(bytes));
+
+      setId(decoded.getString("id"));
+      setTimeout(decoded.getLong("timeout"));
+      setLastAccessed(decoded.getLong("lastAccessed"));
+      setVersion(decoded.getInteger("version"));
+      final JsonObject data = decoded.getJsonObject("data");
+      if (data != null && !data.isEmpty()) {
+        final Map<String, Object> map = new ConcurrentHashMap<>(data.size());
+        for (String key : data.fieldNames()) {
+          // nested objects and arrays as JsonObject and JsonArray, so they can be serialized again
+          final Object val = data.getValue(key);
+          if (val != null) {
+            map.put(key, val);
+          }
+        }
+        setData(map);
+      }
+    } else {
+      readFromBuffer(0, Buffer.buffer(bytes));
+      // the cookie is still valid as long as the session does not change
+      value = payload;
+      valueVersion = version();
+    }
 
     // defaults
     oldVersion = version();
-    oldCrc = crc();
 
     return this;
   }
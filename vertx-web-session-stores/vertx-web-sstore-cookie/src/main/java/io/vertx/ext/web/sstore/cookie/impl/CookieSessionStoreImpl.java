@@ -44,7 +44,8 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     init(vertx, new JsonObject().put("secret", secret));
   }
 
-  private Mac mac;
+  // a Mac is not thread-safe, every thread signs with its own
+  private ThreadLocal<Mac> mac;
   private VertxContextPRNG random;
 
   @Override
@@ -52,14 +53,22 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     // initialize a secure random
     this.random = VertxContextPRNG.current(vertx);
 
+    final SecretKeySpec key = new SecretKeySpec(options.getString("secret").getBytes(), "HmacSHA256");
+    mac = ThreadLocal.withInitial(() -> createMac(key));
+    // fail on an invalid key now rather than on the first request
+    mac.get();
+
+    return this;
+  }
+
+  private static Mac createMac(SecretKeySpec key) {
     try {
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(new SecretKeySpec(options.getString("secret").getBytes(), "HmacSHA256"));
+      final Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(key);
+      return mac;
     } catch (NoSuchAlgorithmException | InvalidKeyException e) {
       throw new RuntimeException(e);
     }
-
-    return this;
   }
 
   @Override
@@ -122,6 +131,12 @@ public class CookieSessionStoreImpl implements CookieSessionStore {
     resultHandler.handle(Future.succeededFuture());
   }
 
+  @Override
+  public void touch(Session session, Handler<AsyncResult<Void>> resultHandler) {
+    // the session lives in the cookie, there is nothing to refresh
+    resultHandler.handle(Future.succeededFuture());
+  }
+
   @Override
   public void clear(Handler<AsyncResult<Void>> resultHandler) {
     resultHandler.handle(Future.succeededFuture());
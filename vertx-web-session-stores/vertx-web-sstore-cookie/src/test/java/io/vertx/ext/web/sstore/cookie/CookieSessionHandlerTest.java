@@ -16,13 +16,18 @@
 
 package io.vertx.ext.web.sstore.cookie;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.SessionHandler;
 import io.vertx.ext.web.handler.SessionHandlerTestBase;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -65,6 +70,55 @@ public class CookieSessionHandlerTest extends SessionHandlerTestBase {
     await();
   }
 
+  @Test
+  public void testParseTypedData() {
+    Session session = store.createSession(30_000);
+    session.put("long", 1L);
+    session.put("buffer", Buffer.buffer("buffer"));
+    session.put("json", new JsonObject().put("foo", "bar"));
+    String cookieValue = session.value();
+
+    store.get(cookieValue, onSuccess(parsed -> {
+      assertEquals(1L, (long) parsed.get("long"));
+      assertEquals(Buffer.buffer("buffer"), parsed.get("buffer"));
+      assertEquals("bar", parsed.<JsonObject>get("json").getString("foo"));
+      testComplete();
+    }));
+
+    await();
+  }
+
+  @Test
+  public void testParseJsonCookie() throws Exception {
+    // a cookie written by a previous version
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    String b64 = encoder.encodeToString(new JsonObject()
+      .put("id", "legacy")
+      .put("timeout", 30_000)
+      .put("lastAccessed", System.currentTimeMillis())
+      .put("version", 1)
+      .put("data", new JsonObject().put("nested", new JsonObject().put("foo", "bar")))
+      .toBuffer()
+      .getBytes());
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec("KeyboardCat!".getBytes(), "HmacSHA256"));
+    String cookieValue = b64 + "." + encoder.encodeToString(mac.doFinal(b64.getBytes()));
+
+    store.get(cookieValue, onSuccess(parsed -> {
+      assertEquals("legacy", parsed.id());
+      assertEquals("bar", parsed.<JsonObject>get("nested").getString("foo"));
+      // written back in the new encoding
+      parsed.put("foo", "baz");
+      store.get(parsed.value(), onSuccess(reparsed -> {
+        assertEquals("bar", reparsed.<JsonObject>get("nested").getString("foo"));
+        assertEquals("baz", reparsed.get("foo"));
+        testComplete();
+      }));
+    }));
+
+    await();
+  }
+
   /**
    * This test overrides the original as at the end there is no way to guarantee that the session cannot be
    * reused as Cookies do not preserve state across clients
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.redis.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Consumer;
+
+import static io.vertx.redis.client.Command.EVAL;
+import static io.vertx.redis.client.Command.EVALSHA;
+import static io.vertx.redis.client.Request.cmd;
+
+/**
+ * A Lua script operating on a single key.
+ * <p>
+ * The script is called by its digest with {@code EVALSHA}, so only the arguments are sent. When the server does not
+ * know the script yet, e.g.: after a restart or a {@code SCRIPT FLUSH}, it is sent once with {@code EVAL} which also
+ * caches it on the server.
+ * <p>
+ * This class is thread-safe
+ */
+final class RedisScript {
+
+  private final String source;
+  private final String sha;
+
+  RedisScript(String source) {
+    this.source = source;
+    this.sha = sha1(source);
+  }
+
+  /**
+   * Runs the script on the given key.
+   *
+   * @param key  the key the script operates on
+   * @param args  appends the arguments of the script to the request
+   */
+  void call(Redis redis, String key, Consumer<Request> args, Handler<AsyncResult<Response>> handler) {
+    final Request evalsha = cmd(EVALSHA).arg(sha).arg(1).arg(key);
+    args.accept(evalsha);
+
+    redis.send(evalsha, res -> {
+      if (res.failed()) {
+        final String message = res.cause().getMessage();
+        if (message != null && message.startsWith("NOSCRIPT")) {
+          final Request eval = cmd(EVAL).arg(source).arg(1).arg(key);
+          args.accept(eval);
+          redis.send(eval, handler);
+          return;
+        }
+      }
+      handler.handle(res);
+    });
+  }
+
+  private static String sha1(String source) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-1").digest(source.getBytes(StandardCharsets.UTF_8));
+      final StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+        sb.append(Character.forDigit(b & 0xF, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
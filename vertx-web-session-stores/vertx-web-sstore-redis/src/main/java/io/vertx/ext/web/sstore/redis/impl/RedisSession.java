@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.redis.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.auth.VertxContextPRNG;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
+import io.vertx.redis.client.Response;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A session stored as a Redis hash.
+ * <p>
+ * The {@link #META} field holds the timeout, last access time and version of the session, every entry of the session
+ * data is stored in its own field prefixed with {@link #ENTRY_PREFIX}. An entry is the version of the session that
+ * last wrote it followed by its value, so concurrent requests changing different keys of a session do not conflict.
+ */
+class RedisSession extends SharedDataSessionImpl {
+
+  static final String META = "__meta";
+  static final String ENTRY_PREFIX = "d:";
+
+  // the version of the session that last wrote each entry, as loaded from the store
+  private final Map<String, Integer> entryVersions = new ConcurrentHashMap<>();
+  // loaded from a single value written by a previous version of the store
+  private volatile boolean legacy;
+
+  RedisSession(VertxContextPRNG random) {
+    super(random);
+  }
+
+  RedisSession(VertxContextPRNG random, long timeout, int length) {
+    super(random, timeout, length);
+  }
+
+  /**
+   * Reads the session from the reply of a {@code HGETALL}.
+   *
+   * @return {@code false} if the hash is not a session
+   */
+  boolean readFromHash(String id, Response hash) {
+    setId(id);
+    boolean hasMeta = false;
+    for (int i = 0; i + 1 < hash.size(); i += 2) {
+      final String field = hash.get(i).toString();
+      final Buffer value = hash.get(i + 1).toBuffer();
+      if (META.equals(field)) {
+        setTimeout(value.getLong(0));
+        setLastAccessed(value.getLong(8));
+        setVersion(value.getInt(16));
+        hasMeta = true;
+      } else if (field.startsWith(ENTRY_PREFIX)) {
+        final String key = field.substring(ENTRY_PREFIX.length());
+        entryVersions.put(key, value.getInt(0));
+        readValueFromBuffer(key, 4, value);
+      }
+    }
+    return hasMeta;
+  }
+
+  /**
+   * Reads the session from the single value written by a previous version of the store.
+   */
+  void readFromLegacy(Buffer buffer) {
+    readFromBuffer(0, buffer);
+    legacy = true;
+  }
+
+  /**
+   * @return {@code true} when the session is stored with the layout of a previous version of the store, it must be
+   * written as a whole
+   */
+  boolean isLegacy() {
+    return legacy;
+  }
+
+  /**
+   * @return the timeout and last access time of the session, the stored meta data is followed by the version
+   */
+  Buffer metaHead() {
+    return Buffer.buffer(20)
+      .appendLong(timeout())
+      .appendLong(lastAccessed());
+  }
+
+  /**
+   * @return the value to store for the given key, the stored entry is prefixed by the version, or {@code null} if the
+   * key was removed
+   */
+  Buffer value(String key) {
+    final Buffer buffer = Buffer.buffer();
+    return writeValueToBuffer(key, buffer) ? buffer : null;
+  }
+
+  /**
+   * @return the keys of the session data
+   */
+  Collection<String> keys() {
+    final Map<String, Object> data = peekData();
+    return data == null ? Collections.emptyList() : new ArrayList<>(data.keySet());
+  }
+
+  /**
+   * @return the version of the session that last wrote the entry, {@code -1} if the entry did not exist
+   */
+  int entryVersion(String key) {
+    return entryVersions.getOrDefault(key, -1);
+  }
+
+  /**
+   * Records that the given keys were written with the given version.
+   *
+   * @param keys  the written keys, {@code null} if the whole session was written
+   */
+  void stored(Collection<String> keys, int version) {
+    if (keys == null) {
+      entryVersions.clear();
+      keys = keys();
+      legacy = false;
+    }
+    for (String key : keys) {
+      if (get(key) == null) {
+        entryVersions.remove(key);
+      } else {
+        entryVersions.put(key, version);
+      }
+    }
+    setVersion(version);
+    clearDirty();
+  }
+}
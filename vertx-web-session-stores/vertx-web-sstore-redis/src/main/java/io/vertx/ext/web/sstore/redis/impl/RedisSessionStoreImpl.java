@@ -23,13 +23,13 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.Session;
-import io.vertx.ext.web.sstore.AbstractSession;
 import io.vertx.ext.web.sstore.SessionStore;
-import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
 import io.vertx.ext.web.sstore.redis.RedisSessionStore;
 import io.vertx.redis.client.Redis;
-import io.vertx.redis.client.Request;
 import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+
+import java.util.*;
 
 import static io.vertx.redis.client.Command.*;
 import static io.vertx.redis.client.Request.cmd;
@@ -38,6 +38,91 @@ import static io.vertx.redis.client.Request.cmd;
  * @author <a href="https://github.com/llfbandit">Rémy Noël</a>
  */
 public class RedisSessionStoreImpl implements RedisSessionStore {
+
+  /**
+   * Reads a session and postpones its expiration. A session written as a single value by a previous version of the
+   * store is returned as is, its expiration is postponed once it is decoded.
+   * <p>
+   * ARGV: the meta data field
+   */
+  private static final RedisScript GET = new RedisScript(
+    "local key = KEYS[1]\n" +
+    "local kind = redis.call('TYPE', key).ok\n" +
+    "if kind == 'string' then\n" +
+    "  return redis.call('GET', key)\n" +
+    "end\n" +
+    "if kind ~= 'hash' then\n" +
+    "  return {}\n" +
+    "end\n" +
+    "local meta = redis.call('HGET', key, ARGV[1])\n" +
+    "if not meta then\n" +
+    "  return {}\n" +
+    "end\n" +
+    "redis.call('PEXPIRE', key, (struct.unpack('>i8', meta)))\n" +
+    "return redis.call('HGETALL', key)\n");
+
+  /**
+   * Validates the versions of a session and writes it, returns the new version or -1 on a version mismatch.
+   * <p>
+   * ARGV: the meta data field, the session version, 1 to write the whole session, the version increment, the timeout
+   * and last access time, then for every written entry: the field, the version it was loaded with and the value or an
+   * empty string when the entry is removed
+   */
+  private static final RedisScript PUT = new RedisScript(
+    "local key = KEYS[1]\n" +
+    "local version = tonumber(ARGV[2])\n" +
+    "local full = ARGV[3] == '1'\n" +
+    "local stored = false\n" +
+    "local kind = redis.call('TYPE', key).ok\n" +
+    "if kind == 'hash' then\n" +
+    "  stored = redis.call('HGET', key, ARGV[1])\n" +
+    "elseif kind ~= 'none' then\n" +
+    "  redis.call('DEL', key)\n" +
+    "end\n" +
+    "if stored then\n" +
+    "  local storedVersion = struct.unpack('>i4', stored, 17)\n" +
+    "  if full then\n" +
+    "    if storedVersion ~= version then\n" +
+    "      return -1\n" +
+    "    end\n" +
+    "  else\n" +
+    // the entries this session changes must not have been changed by someone else in the meantime, changes to other
+    // entries are merged
+    "    for i = 6, #ARGV, 3 do\n" +
+    "      local entry = redis.call('HGET', key, ARGV[i])\n" +
+    "      local entryVersion = -1\n" +
+    "      if entry then\n" +
+    "        entryVersion = struct.unpack('>i4', entry)\n" +
+    "      end\n" +
+    "      if entryVersion ~= tonumber(ARGV[i + 1]) then\n" +
+    "        return -1\n" +
+    "      end\n" +
+    "    end\n" +
+    "    version = math.max(version, storedVersion)\n" +
+    "  end\n" +
+    "end\n" +
+    "version = version + tonumber(ARGV[4])\n" +
+    "local prefix = struct.pack('>i4', version)\n" +
+    "if full then\n" +
+    "  redis.call('DEL', key)\n" +
+    "end\n" +
+    "local set = {ARGV[1], ARGV[5] .. prefix}\n" +
+    "local removed = {}\n" +
+    "for i = 6, #ARGV, 3 do\n" +
+    "  if ARGV[i + 2] == '' then\n" +
+    "    removed[#removed + 1] = ARGV[i]\n" +
+    "  else\n" +
+    "    set[#set + 1] = ARGV[i]\n" +
+    "    set[#set + 1] = prefix .. ARGV[i + 2]\n" +
+    "  end\n" +
+    "end\n" +
+    "redis.call('HSET', key, unpack(set))\n" +
+    "if #removed > 0 then\n" +
+    "  redis.call('HDEL', key, unpack(removed))\n" +
+    "end\n" +
+    "redis.call('PEXPIRE', key, (struct.unpack('>i8', ARGV[5])))\n" +
+    "return version\n");
+
   private final Redis redis;
   private final VertxContextPRNG random;
   private final long retryTimeout;
@@ -65,22 +150,22 @@ public class RedisSessionStoreImpl implements RedisSessionStore {
 
   @Override
   public Session createSession(long timeout, int length) {
-    return new SharedDataSessionImpl(random, timeout, length);
+    return new RedisSession(random, timeout, length);
   }
 
   @Override
   public void get(String id, Handler<AsyncResult<Session>> resultHandler) {
-    redis.send(cmd(GET).arg(id), resGet -> {
+    GET.call(redis, id, rq -> rq.arg(RedisSession.META), resGet -> {
         if (resGet.failed()) {
           resultHandler.handle(Future.failedFuture(resGet.cause()));
           return;
         }
 
         Response response = resGet.result();
-        if (response != null) {
-          SharedDataSessionImpl session = new SharedDataSessionImpl(random);
-          session.readFromBuffer(0, response.toBuffer());
-          // postpone expiration time, this cannot be done in a single frame with GET cmd
+        RedisSession session = new RedisSession(random);
+        if (response != null && response.type() == ResponseType.BULK) {
+          // the previous layout, the session is written as a hash the next time it is stored
+          session.readFromLegacy(response.toBuffer());
           redis.send(cmd(PEXPIRE).arg(id).arg(session.timeout()), resExpire -> {
             if (resExpire.failed()) {
               resultHandler.handle(Future.failedFuture(resExpire.cause()));
@@ -88,6 +173,8 @@ public class RedisSessionStoreImpl implements RedisSessionStore {
               resultHandler.handle(Future.succeededFuture(session));
             }
           });
+        } else if (response != null && session.readFromHash(id, response)) {
+          resultHandler.handle(Future.succeededFuture(session));
         } else {
           resultHandler.handle(Future.succeededFuture());
         }
@@ -107,44 +194,65 @@ public class RedisSessionStoreImpl implements RedisSessionStore {
 
   @Override
   public void put(Session session, Handler<AsyncResult<Void>> resultHandler) {
-    redis.send(cmd(GET).arg(session.id()), res -> {
-        if (res.failed()) {
-          resultHandler.handle(Future.failedFuture(res.cause()));
-          return;
-        }
+    final RedisSession redisSession = (RedisSession) session;
+    final Set<String> dirtyKeys = redisSession.dirtyKeys();
+    // only the changed entries are written, unless the whole session changed or it is stored with the previous layout
+    final List<String> keys = dirtyKeys == null || redisSession.isLegacy() ? null : new ArrayList<>(dirtyKeys);
+    writeSession(redisSession, keys, redisSession.isDirty() ? 1 : 0, resultHandler);
+  }
 
-        AbstractSession newSession = (AbstractSession) session;
-        Response response = res.result();
-        if (response != null) {
-          // Old session exists, we need to validate versions
-          SharedDataSessionImpl oldSession = new SharedDataSessionImpl(random);
-          oldSession.readFromBuffer(0, response.toBuffer());
-
-          if (oldSession.version() != newSession.version()) {
-            resultHandler.handle(Future.failedFuture("Session version mismatch"));
-            return;
-          }
-        }
+  @Override
+  public void touch(Session session, Handler<AsyncResult<Void>> resultHandler) {
+    redis.send(cmd(PEXPIRE).arg(session.id()).arg(session.timeout()), res -> {
+      if (res.failed()) {
+        resultHandler.handle(Future.failedFuture(res.cause()));
+        return;
+      }
 
-        newSession.incrementVersion();
-        writeSession(newSession, resultHandler);
-      });
+      Response response = res.result();
+      if (response == null || response.toInteger() == 0) {
+        // the session does not exist (anymore), it must be written
+        writeSession((RedisSession) session, null, 0, resultHandler);
+      } else {
+        resultHandler.handle(Future.succeededFuture());
+      }
+    });
   }
 
-  private void writeSession(Session session, Handler<AsyncResult<Void>> resultHandler) {
-    Buffer buffer = Buffer.buffer();
-    SharedDataSessionImpl sessionImpl = (SharedDataSessionImpl) session;
-    sessionImpl.writeToBuffer(buffer);
+  /**
+   * Writes the given entries of the session, or the whole session when {@code keys} is {@code null}. The versions are
+   * validated and the changes applied by a single script on the server.
+   *
+   * @param increment  how much the version is incremented
+   */
+  private void writeSession(RedisSession session, List<String> keys, int increment, Handler<AsyncResult<Void>> resultHandler) {
+    final Collection<String> written = keys != null ? keys : session.keys();
 
-    // submit with all session data & expiration TO in ms
-    Request rq = cmd(SET)
-      .arg(session.id()).arg(buffer)
-      .arg("PX").arg(session.timeout());
+    PUT.call(redis, session.id(), rq -> {
+      rq.arg(RedisSession.META)
+        .arg(session.version())
+        .arg(keys == null ? 1 : 0)
+        .arg(increment)
+        .arg(session.metaHead());
 
-    redis.send(rq, res -> {
+      for (String key : written) {
+        final Buffer value = session.value(key);
+        rq.arg(RedisSession.ENTRY_PREFIX + key)
+          .arg(session.entryVersion(key))
+          // a value is never empty, empty means removed
+          .arg(value == null ? Buffer.buffer() : value);
+      }
+    }, res -> {
       if (res.failed()) {
         resultHandler.handle(Future.failedFuture(res.cause()));
+        return;
+      }
+
+      final int version = res.result().toInteger();
+      if (version < 0) {
+        resultHandler.handle(Future.failedFuture("Session version mismatch"));
       } else {
+        session.stored(keys, version);
         resultHandler.handle(Future.succeededFuture());
       }
     });
@@ -6,14 +6,24 @@ import io.vertx.ext.unit.junit.RunTestOnContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.redis.client.Redis;
 import io.vertx.redis.client.RedisOptions;
+import io.vertx.redis.client.Response;
 import org.junit.*;
 
 import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.sstore.SessionStore;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
 import org.junit.runner.RunWith;
 import org.testcontainers.containers.GenericContainer;
 
+import static io.vertx.redis.client.Command.SCRIPT;
+import static io.vertx.redis.client.Command.SET;
+import static io.vertx.redis.client.Command.TYPE;
+import static io.vertx.redis.client.Request.cmd;
+
 /**
  * @author <a href="https://github.com/llfbandit">Rémy Noël</a>
  */
@@ -27,20 +37,23 @@ public class RedisSessionStoreTest {
   @Rule
   public RunTestOnContext rule = new RunTestOnContext();
 
+  private Redis redis;
   private SessionStore store;
 
   @Before
   public void before() {
+    redis = Redis.createClient(rule.vertx(), new RedisOptions()
+      .setConnectionString("redis://" + container.getContainerIpAddress() + ":" + container.getMappedPort(6379))
+      // how many connections are we willing to open to redis?
+      .setMaxPoolSize(2)
+      // how many waiting connections are we allowing to queue?
+      .setMaxPoolWaiting(32));
+
     store = RedisSessionStore.create(
       // get the vertx instance
       rule.vertx(),
       // provide a client
-      Redis.createClient(rule.vertx(), new RedisOptions()
-        .setConnectionString("redis://" + container.getContainerIpAddress() + ":" + container.getMappedPort(6379))
-        // how many connections are we willing to open to redis?
-        .setMaxPoolSize(2)
-        // how many waiting connections are we allowing to queue?
-        .setMaxPoolWaiting(32)));
+      redis);
   }
 
   @After
@@ -83,6 +96,103 @@ public class RedisSessionStoreTest {
       });
   }
 
+  @Test(timeout = 10_000)
+  public void testGetLegacySession(TestContext should) {
+    final Async test = should.async();
+
+    // a session stored as a single value by a previous version of the store
+    SharedDataSessionImpl legacy = new SharedDataSessionImpl(VertxContextPRNG.current(rule.vertx()), 30_000, SessionStore.DEFAULT_SESSIONID_LENGTH);
+    legacy.put("foo", "bar");
+    Buffer buffer = Buffer.buffer();
+    legacy.writeToBuffer(buffer);
+    String value = legacy.value();
+
+    Future.<Response>future(p -> redis.send(cmd(SET).arg(value).arg(buffer).arg("PX").arg(30_000), p))
+      .compose(set -> store.get(value))
+      .compose(sessionGet -> {
+        should.assertNotNull(sessionGet);
+        should.assertEquals("bar", sessionGet.get("foo"));
+        sessionGet.put("foo", "baz");
+        return store.put(sessionGet);
+      })
+      .compose(aVoid -> Future.<Response>future(p -> redis.send(cmd(TYPE).arg(value), p)))
+      .compose(type -> {
+        // rewritten with the current layout
+        should.assertEquals("hash", type.toString());
+        return store.get(value);
+      })
+      .onComplete(res -> {
+        should.assertTrue(res.succeeded());
+        should.assertEquals("baz", res.result().get("foo"));
+        test.complete();
+      });
+  }
+
+  @Test(timeout = 10_000)
+  public void testConcurrentChangesAreMerged(TestContext should) {
+    final Async test = should.async();
+
+    Session session = store.createSession(30_000);
+    session.put("a", "a0");
+    session.put("b", "b0");
+    String value = session.value();
+
+    store.put(session)
+      .compose(aVoid -> CompositeFuture.all(store.get(value), store.get(value)))
+      .compose(sessions -> {
+        Session first = sessions.resultAt(0);
+        Session second = sessions.resultAt(1);
+        first.put("a", "a1");
+        second.put("b", "b1");
+        return store.put(first)
+          .compose(aVoid -> store.put(second))
+          .compose(aVoid -> {
+            second.put("b", "b2");
+            return store.put(second);
+          })
+          .compose(aVoid -> {
+            // the entry was changed since it was loaded by this session
+            first.put("b", "b3");
+            return store.put(first).compose(
+              v -> Future.failedFuture("Conflict expected"),
+              err -> Future.succeededFuture());
+          });
+      })
+      .compose(v -> store.get(value))
+      .onComplete(res -> {
+        should.assertTrue(res.succeeded());
+        Session stored = res.result();
+        should.assertEquals("a1", stored.get("a"));
+        should.assertEquals("b2", stored.get("b"));
+        test.complete();
+      });
+  }
+
+  @Test(timeout = 10_000)
+  public void testScriptsAreReloaded(TestContext should) {
+    final Async test = should.async();
+
+    Session session = store.createSession(30_000);
+    session.put("foo", "bar");
+    String value = session.value();
+
+    store.put(session)
+      // the server forgets the scripts, e.g.: after a restart
+      .compose(aVoid -> Future.<Response>future(p -> redis.send(cmd(SCRIPT).arg("FLUSH"), p)))
+      .compose(flushed -> store.get(value))
+      .compose(sessionGet -> {
+        should.assertEquals("bar", sessionGet.get("foo"));
+        sessionGet.put("foo", "baz");
+        return store.put(sessionGet);
+      })
+      .compose(aVoid -> store.get(value))
+      .onComplete(res -> {
+        should.assertTrue(res.succeeded());
+        should.assertEquals("baz", res.result().get("foo"));
+        test.complete();
+      });
+  }
+
   @Test(timeout = 10_000)
   public void testClearSession(TestContext should) {
     final Async test = should.async();
@@ -34,6 +34,7 @@ import io.vertx.ext.web.sstore.SessionStore;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * These are the examples used in the documentation.
@@ -1638,4 +1639,18 @@ public class WebExamples {
       });
     });
   }
+
+  public void example79(Router router) {
+
+    CountingRouterMetrics metrics = new CountingRouterMetrics();
+    router.metrics(metrics);
+
+    // later, e.g.: when scraping the metrics
+    for (CountingRouterMetrics.RouteCounters counters : metrics.routes()) {
+      System.out.println(
+        counters.route().getPath() + " matched " + counters.matches() + " times, " +
+          counters.handlerTotalTime(TimeUnit.MILLISECONDS) + "ms spent in handlers");
+    }
+    System.out.println(metrics.noMatchCount(404) + " requests were not found");
+  }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link RouterMetrics} keeping monotonic counters per route.
+ * <p>
+ * The counters only grow, so they map directly to Micrometer {@code FunctionCounter}s and, using the count and total
+ * time pairs, to {@code FunctionTimer}s. The route path and methods can be used as tags.
+ * <p>
+ * This class is thread-safe
+ */
+public class CountingRouterMetrics implements RouterMetrics {
+
+  private final Map<Route, RouteCounters> routes = new ConcurrentHashMap<>();
+  private final Map<Integer, LongAdder> noMatches = new ConcurrentHashMap<>();
+
+  @Override
+  public void matchAttempt(Route route) {
+    counters(route).attempts.increment();
+  }
+
+  @Override
+  public void matched(Route route) {
+    counters(route).matches.increment();
+  }
+
+  @Override
+  public void handlerTime(Route route, long nanos) {
+    RouteCounters counters = counters(route);
+    counters.handlerCount.increment();
+    counters.handlerNanos.add(nanos);
+  }
+
+  @Override
+  public void failureHandlerTime(Route route, long nanos) {
+    RouteCounters counters = counters(route);
+    counters.failureHandlerCount.increment();
+    counters.failureHandlerNanos.add(nanos);
+  }
+
+  @Override
+  public void routeRemoved(Route route) {
+    routes.remove(route);
+  }
+
+  @Override
+  public void noMatch(int statusCode) {
+    noMatches.computeIfAbsent(statusCode, k -> new LongAdder()).increment();
+  }
+
+  /**
+   * @return the counters of every route seen so far and not removed since
+   */
+  public Collection<RouteCounters> routes() {
+    return Collections.unmodifiableCollection(routes.values());
+  }
+
+  /**
+   * @param route the route
+   * @return the counters of the route, never {@code null}
+   */
+  public RouteCounters route(Route route) {
+    return counters(route);
+  }
+
+  /**
+   * @param statusCode the status code, e.g.: 404 or 405
+   * @return how many requests were not matched by any route and replied with the given status code
+   */
+  public long noMatchCount(int statusCode) {
+    LongAdder adder = noMatches.get(statusCode);
+    return adder == null ? 0 : adder.sum();
+  }
+
+  private RouteCounters counters(Route route) {
+    RouteCounters counters = routes.get(route);
+    if (counters == null) {
+      counters = routes.computeIfAbsent(route, RouteCounters::new);
+    }
+    return counters;
+  }
+
+  /**
+   * The counters of a single route.
+   */
+  public static final class RouteCounters {
+
+    private final Route route;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder handlerCount = new LongAdder();
+    private final LongAdder handlerNanos = new LongAdder();
+    private final LongAdder failureHandlerCount = new LongAdder();
+    private final LongAdder failureHandlerNanos = new LongAdder();
+
+    private RouteCounters(Route route) {
+      this.route = route;
+    }
+
+    /**
+     * @return the route these counters belong to
+     */
+    public Route route() {
+      return route;
+    }
+
+    /**
+     * @return how many times the route was evaluated against a request
+     */
+    public long matchAttempts() {
+      return attempts.sum();
+    }
+
+    /**
+     * @return how many times the route matched a request
+     */
+    public long matches() {
+      return matches.sum();
+    }
+
+    /**
+     * @return how many times a context handler of the route was called
+     */
+    public long handlerCount() {
+      return handlerCount.sum();
+    }
+
+    /**
+     * @param unit the time unit
+     * @return the total time spent in the context handlers of the route
+     */
+    public double handlerTotalTime(TimeUnit unit) {
+      return (double) handlerNanos.sum() / unit.toNanos(1);
+    }
+
+    /**
+     * @return how many times a failure handler of the route was called
+     */
+    public long failureHandlerCount() {
+      return failureHandlerCount.sum();
+    }
+
+    /**
+     * @param unit the time unit
+     * @return the total time spent in the failure handlers of the route
+     */
+    public double failureHandlerTotalTime(TimeUnit unit) {
+      return (double) failureHandlerNanos.sum() / unit.toNanos(1);
+    }
+  }
+}
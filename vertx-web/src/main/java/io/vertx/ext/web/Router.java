@@ -17,6 +17,7 @@
 package io.vertx.ext.web;
 
 import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.Nullable;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
@@ -399,4 +400,17 @@ public interface Router extends Handler<HttpServerRequest> {
    */
   @Fluent
   Router allowForward(AllowForwardHeaders allowForwardHeaders);
+
+  /**
+   * Set the metrics notified of the routing activity of this router: the match attempts and hits of each route, the
+   * time spent in its handlers and the requests no route could handle. Sub routers have their own metrics.
+   * <p>
+   * By default no metrics are set and routing does not perform any measurement.
+   *
+   * @param metrics the metrics, or {@code null} to disable them
+   * @return a reference to this, so the API can be used fluently
+   */
+  @GenIgnore
+  @Fluent
+  Router metrics(@Nullable RouterMetrics metrics);
 }
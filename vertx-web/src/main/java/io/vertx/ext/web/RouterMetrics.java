@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web;
+
+/**
+ * An SPI notified of the routing activity of a {@link Router}, see {@link Router#metrics(RouterMetrics)}.
+ * <p>
+ * The callbacks are invoked on the routing hot path, from any event loop, so implementations must be thread-safe and
+ * cheap. When no metrics are set on a router, routing does not perform any measurement at all.
+ * <p>
+ * {@link CountingRouterMetrics} is a ready to use implementation that can be bound to a metrics registry such as
+ * Micrometer.
+ */
+public interface RouterMetrics {
+
+  /**
+   * A route is evaluated against a request.
+   *
+   * @param route the route
+   */
+  default void matchAttempt(Route route) {
+  }
+
+  /**
+   * A route matched a request and one of its handlers is about to be called.
+   *
+   * @param route the route
+   */
+  default void matched(Route route) {
+  }
+
+  /**
+   * A context handler of a route returned.
+   *
+   * @param route the route
+   * @param nanos the time spent in the handler, excluding the handlers it synchronously called through
+   *              {@link RoutingContext#next()}
+   */
+  default void handlerTime(Route route, long nanos) {
+  }
+
+  /**
+   * A failure handler of a route returned.
+   *
+   * @param route the route
+   * @param nanos the time spent in the failure handler, excluding the handlers it synchronously called through
+   *              {@link RoutingContext#next()}
+   */
+  default void failureHandlerTime(Route route, long nanos) {
+  }
+
+  /**
+   * A route was removed from the router, implementations should release what they keep for it.
+   *
+   * @param route the route
+   */
+  default void routeRemoved(Route route) {
+  }
+
+  /**
+   * No route could handle a request, the router replies with the given status code (e.g.: 404, 405).
+   *
+   * @param statusCode the status code
+   */
+  default void noMatch(int statusCode) {
+  }
+}
@@ -274,9 +274,22 @@ public interface RoutingContext {
   /**
    * @return Get the entire HTTP request body as a {@link Buffer}. The context must have first been routed to a
    * {@link io.vertx.ext.web.handler.BodyHandler} for this to be populated.
+   * <br/>
+   * When the body was spilled to disk then {@code null} is returned, see {@link #getBodyFileName()}.
    */
   @Nullable Buffer getBody();
 
+  /**
+   * @return the name of the file holding the HTTP request body when the {@link io.vertx.ext.web.handler.BodyHandler}
+   * spilled it to disk, see {@link io.vertx.ext.web.handler.BodyHandler#setBodySpillThreshold(long)}. The body is
+   * then not loaded in memory: {@link #getBody()}, {@link #getBodyAsString()}, {@link #getBodyAsJson()} and
+   * {@link #getBodyAsJsonArray()} return {@code null} and the body must be streamed from the file, e.g. with
+   * {@link io.vertx.core.file.FileSystem#open(String, io.vertx.core.file.OpenOptions, Handler)}.
+   */
+  default @Nullable String getBodyFileName() {
+    return get("__vertx.bodyFileName");
+  }
+
   /**
    * @return a set of fileuploads (if any) for the request. The context must have first been routed to a
    * {@link io.vertx.ext.web.handler.BodyHandler} for this to work.
@@ -432,6 +445,18 @@ public interface RoutingContext {
    */
   void setBody(Buffer body);
 
+  /**
+   * Set the name of the file holding the body. Used by the {@link io.vertx.ext.web.handler.BodyHandler}. You will not
+   * normally call this method.
+   * <p>
+   * The default implementation keeps the name in the context {@link #data()}.
+   *
+   * @param bodyFileName  the name of the file holding the body
+   */
+  default void setBodyFileName(String bodyFileName) {
+    put("__vertx.bodyFileName", bodyFileName);
+  }
+
   /**
    * Set the session. Used by the {@link io.vertx.ext.web.handler.SessionHandler}. You will not normally call this method.
    *
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.handler;
+
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.handler.impl.AuthenticationCacheImpl;
+
+/**
+ * A bounded cache of the users authenticated by an auth handler, so requests repeating the same credentials do not
+ * verify them again, e.g.: a password hash or a token signature.
+ * <p>
+ * Users are cached by a hash of the credentials, the credentials themselves are not kept. A user is cached at most
+ * for the timeout of the cache and never past the expiration ({@code exp}) of its token. Users whose credentials are
+ * revoked must be removed with {@link #invalidate(User)} or {@link #clear()}.
+ * <p>
+ * A cache can be used from any event loop, but it should only be shared by handlers using the same auth provider.
+ */
+@VertxGen
+public interface AuthenticationCache {
+
+  /**
+   * Default maximum number of cached users.
+   */
+  int DEFAULT_MAX_SIZE = 1000;
+
+  /**
+   * Default time a user is cached, in ms.
+   */
+  long DEFAULT_TIMEOUT = 60_000;
+
+  /**
+   * Create a cache with the default size and timeout.
+   *
+   * @return the cache
+   */
+  static AuthenticationCache create() {
+    return create(DEFAULT_MAX_SIZE, DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * Create a cache.
+   *
+   * @param maxSize  the maximum number of cached users
+   * @param timeout  the time a user is cached, in ms
+   * @return the cache
+   */
+  static AuthenticationCache create(int maxSize, long timeout) {
+    return new AuthenticationCacheImpl(maxSize, timeout);
+  }
+
+  /**
+   * Forgets the given user, whatever the credentials it was authenticated with.
+   *
+   * @param user  the user
+   */
+  void invalidate(User user);
+
+  /**
+   * Forgets all the users.
+   */
+  void clear();
+}
@@ -16,6 +16,7 @@
 
 package io.vertx.ext.web.handler;
 
+import io.vertx.codegen.annotations.Fluent;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.web.handler.impl.BasicAuthHandlerImpl;
@@ -53,4 +54,14 @@ public interface BasicAuthHandler extends AuthenticationHandler {
   static BasicAuthHandler create(AuthenticationProvider authProvider, String realm) {
     return new BasicAuthHandlerImpl(authProvider, realm);
   }
+
+  /**
+   * Caches the users authenticated by this handler, so requests repeating the same credentials skip their
+   * verification.
+   *
+   * @param authenticationCache  the cache, {@code null} to verify the credentials on every request
+   * @return a reference to this for fluency
+   */
+  @Fluent
+  BasicAuthHandler setAuthenticationCache(AuthenticationCache authenticationCache);
 }
@@ -57,6 +57,11 @@ public interface BodyHandler extends Handler<RoutingContext> {
    */
   boolean DEFAULT_PREALLOCATE_BODY_BUFFER = false;
 
+  /**
+   * Default size above which the body is spilled to disk, -1 means never
+   */
+  long DEFAULT_BODY_SPILL_THRESHOLD = -1;
+
   /**
    * Create a body handler with defaults
    *
@@ -133,13 +138,25 @@ public interface BodyHandler extends Handler<RoutingContext> {
 
   /**
    * Pre-allocate the body buffer according to the value parsed from content-length header.
-   * The buffer is capped at 64KB
+   * Bodies larger than 64KB, or without content-length header, are always gathered as the list of received chunks
+   * and only copied in a single buffer when {@link io.vertx.ext.web.RoutingContext#getBody()} is called.
    * @param isPreallocateBodyBuffer {@code true} if body buffer is pre-allocated according to the size
    *                               read from content-length Header.
-   *                               {code false} if body buffer is pre-allocated to 1KB, and is resized dynamically
+   *                               {code false} if the body is gathered as the list of received chunks
    * @return reference to this for fluency
    */
   @Fluent
   BodyHandler setPreallocateBodyBuffer(boolean isPreallocateBodyBuffer);
 
+  /**
+   * Set the size above which the body is streamed to a file in the uploads directory instead of being kept in memory,
+   * -1 means never. The file is available with {@link io.vertx.ext.web.RoutingContext#getBodyFileName()} and removed
+   * with the uploaded files, see {@link #setDeleteUploadedFilesOnEnd(boolean)}.
+   *
+   * @param bodySpillThreshold  the size in bytes
+   * @return reference to this for fluency
+   */
+  @Fluent
+  BodyHandler setBodySpillThreshold(long bodySpillThreshold);
+
 }
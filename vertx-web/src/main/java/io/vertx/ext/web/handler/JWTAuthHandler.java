@@ -64,4 +64,14 @@ public interface JWTAuthHandler extends AuthenticationHandler {
    */
   @Fluent
   JWTAuthHandler setIgnoreExpiration(boolean ignoreExpiration);
+
+  /**
+   * Caches the users authenticated by this handler, so requests repeating the same credentials skip their
+   * verification.
+   *
+   * @param authenticationCache  the cache, {@code null} to verify the credentials on every request
+   * @return a reference to this for fluency
+   */
+  @Fluent
+  JWTAuthHandler setAuthenticationCache(AuthenticationCache authenticationCache);
 }
@@ -116,6 +116,26 @@ public interface StaticHandler extends Handler<RoutingContext> {
    */
   boolean DEFAULT_SEND_VARY_HEADER = true;
 
+  /**
+   * Default of whether an entity tag computed from the content of files should be sent
+   */
+  boolean DEFAULT_ENABLE_ETAG = false;
+
+  /**
+   * Default of whether precompressed variants of files should be served
+   */
+  boolean DEFAULT_PRECOMPRESSED_FILES = false;
+
+  /**
+   * Default max size in bytes of the in-memory file content cache, {@code 0} disables it
+   */
+  long DEFAULT_MAX_CONTENT_CACHE_SIZE = 0;
+
+  /**
+   * Default max size in bytes of a file to be kept in the in-memory file content cache
+   */
+  long DEFAULT_MAX_CONTENT_CACHE_FILE_SIZE = 256 * 1024;
+
   /**
    * Create a handler using defaults
    *
@@ -316,4 +336,46 @@ public interface StaticHandler extends Handler<RoutingContext> {
    */
   @Fluent
   StaticHandler setDefaultContentEncoding(String contentEncoding);
+
+  /**
+   * Set whether a strong {@code ETag} computed from the content of files should be sent. The tag is computed once and
+   * kept with the cached file properties, so caching must be enabled. Conditional requests with a matching
+   * {@code If-None-Match} are answered with {@code 304} without accessing the file, even when only the last modified
+   * date of the file changed.
+   *
+   * @param enableETag true to send entity tags
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  StaticHandler setEnableETag(boolean enableETag);
+
+  /**
+   * Set whether precompressed variants of files should be served. When the client accepts it, the {@code file.br} or
+   * {@code file.gz} file next to the requested file is sent with the matching {@code Content-Encoding}.
+   *
+   * @param enablePrecompressedFiles true to serve precompressed variants
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  StaticHandler setEnablePrecompressedFiles(boolean enablePrecompressedFiles);
+
+  /**
+   * Set the max size in bytes of the in-memory file content cache, {@code 0} disables it. Small files are then served
+   * from memory, together with a gzip variant for compressible content, without accessing the file system. Cached
+   * content is verified against the file properties cache, so caching must be enabled.
+   *
+   * @param maxContentCacheSize the max size in bytes of the cached content
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  StaticHandler setMaxContentCacheSize(long maxContentCacheSize);
+
+  /**
+   * Set the max size in bytes of a file to be kept in the in-memory file content cache.
+   *
+   * @param maxContentCacheFileSize the max size in bytes of a cached file
+   * @return a reference to this, so the API can be used fluently
+   */
+  @Fluent
+  StaticHandler setMaxContentCacheFileSize(long maxContentCacheFileSize);
 }
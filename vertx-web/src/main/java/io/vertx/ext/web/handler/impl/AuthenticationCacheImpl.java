@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.handler.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.common.impl.ConcurrentLRUCache;
+import io.vertx.ext.web.handler.AuthenticationCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * This class is thread-safe
+ */
+public class AuthenticationCacheImpl implements AuthenticationCache {
+
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private final ConcurrentLRUCache<String, Entry> users;
+  private final long timeout;
+
+  public AuthenticationCacheImpl(int maxSize, long timeout) {
+    if (timeout <= 0) {
+      throw new IllegalArgumentException("timeout must be > 0");
+    }
+    this.users = new ConcurrentLRUCache<>(maxSize);
+    this.timeout = timeout;
+  }
+
+  /**
+   * @return a new user authenticated with the given credentials or {@code null}, users are mutable and the requests
+   * of all the event loops must not share an instance
+   */
+  User get(JsonObject credentials) {
+    final String key = key(credentials);
+    final Entry entry = users.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (System.currentTimeMillis() >= entry.expires) {
+      users.remove(key, entry);
+      return null;
+    }
+    return User.create(entry.principal.copy(), entry.attributes.copy());
+  }
+
+  void put(JsonObject credentials, User user) {
+    final long now = System.currentTimeMillis();
+    long expires = now + timeout;
+    // never past the expiration of the token
+    final Object exp = user.principal() == null ? null : user.principal().getValue("exp");
+    if (exp instanceof Number) {
+      expires = Math.min(expires, ((Number) exp).longValue() * 1000);
+    }
+    if (expires > now) {
+      users.put(key(credentials), new Entry(user, expires));
+    }
+  }
+
+  @Override
+  public void invalidate(User user) {
+    final JsonObject principal = user.principal() == null ? new JsonObject() : user.principal();
+    users.values().removeIf(entry -> principal.equals(entry.principal));
+  }
+
+  @Override
+  public void clear() {
+    users.clear();
+  }
+
+  private static String key(JsonObject credentials) {
+    // the credentials are not kept in memory
+    final MessageDigest digest = SHA256.get();
+    return Base64.getEncoder().encodeToString(digest.digest(credentials.encode().getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static final class Entry {
+    // the user is not kept, every hit gets its own copy of its state
+    final JsonObject principal;
+    final JsonObject attributes;
+    final long expires;
+
+    Entry(User user, long expires) {
+      this.principal = user.principal() == null ? new JsonObject() : user.principal().copy();
+      this.attributes = user.attributes() == null ? new JsonObject() : user.attributes().copy();
+      this.expires = expires;
+    }
+  }
+}
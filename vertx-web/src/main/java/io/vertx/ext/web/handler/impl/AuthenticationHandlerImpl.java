@@ -23,6 +23,7 @@ import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.authentication.AuthenticationProvider;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
+import io.vertx.ext.web.handler.AuthenticationCache;
 import io.vertx.ext.web.handler.AuthenticationHandler;
 
 /**
@@ -38,6 +39,9 @@ public abstract class AuthenticationHandlerImpl implements AuthenticationHandler
   protected final String realm;
   protected final AuthenticationProvider authProvider;
 
+  // opt-in, null when the credentials are verified on every request
+  private volatile AuthenticationCacheImpl authenticationCache;
+
   public AuthenticationHandlerImpl(AuthenticationProvider authProvider) {
     this(authProvider, "");
   }
@@ -70,30 +74,29 @@ public abstract class AuthenticationHandlerImpl implements AuthenticationHandler
       User updatedUser = ctx.user();
 
       if (updatedUser != null) {
-        Session session = ctx.session();
-        if (session != null) {
-          // the user has upgraded from unauthenticated to authenticated
-          // session should be upgraded as recommended by owasp
-          session.regenerateId();
-        }
-        // proceed with the router
-        ctx.next();
+        authenticated(ctx, updatedUser);
         return;
       }
 
+      final AuthenticationProvider provider = getAuthProvider(ctx);
+      // the cache is only valid for the configured provider
+      final AuthenticationCacheImpl cache = provider == authProvider ? authenticationCache : null;
+      if (cache != null) {
+        final User cached = cache.get(res.result());
+        if (cached != null) {
+          authenticated(ctx, cached);
+          return;
+        }
+      }
+
       // proceed to authN
-      getAuthProvider(ctx).authenticate(res.result(), authN -> {
+      provider.authenticate(res.result(), authN -> {
         if (authN.succeeded()) {
           User authenticated = authN.result();
-          ctx.setUser(authenticated);
-          Session session = ctx.session();
-          if (session != null) {
-            // the user has upgraded from unauthenticated to authenticated
-            // session should be upgraded as recommended by owasp
-            session.regenerateId();
+          if (cache != null) {
+            cache.put(res.result(), authenticated);
           }
-          // proceed with the router
-          ctx.next();
+          authenticated(ctx, authenticated);
         } else {
           String header = authenticateHeader(ctx);
           if (header != null) {
@@ -111,6 +114,25 @@ public abstract class AuthenticationHandlerImpl implements AuthenticationHandler
     });
   }
 
+  private static void authenticated(RoutingContext ctx, User user) {
+    ctx.setUser(user);
+    Session session = ctx.session();
+    if (session != null) {
+      // the user has upgraded from unauthenticated to authenticated
+      // session should be upgraded as recommended by owasp
+      session.regenerateId();
+    }
+    // proceed with the router
+    ctx.next();
+  }
+
+  /**
+   * Caches the users authenticated by this handler, {@code null} to verify the credentials on every request.
+   */
+  protected void authenticationCache(AuthenticationCache authenticationCache) {
+    this.authenticationCache = (AuthenticationCacheImpl) authenticationCache;
+  }
+
   /**
    * This method is protected so custom auth handlers can override the default
    * error handling
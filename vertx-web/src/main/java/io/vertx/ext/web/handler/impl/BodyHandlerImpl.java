@@ -22,11 +22,15 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.DecoderException;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
 import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.OpenOptions;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.impl.logging.Logger;
@@ -52,8 +56,7 @@ public class BodyHandlerImpl implements BodyHandler {
   private boolean mergeFormAttributes = DEFAULT_MERGE_FORM_ATTRIBUTES;
   private boolean deleteUploadedFilesOnEnd = DEFAULT_DELETE_UPLOADED_FILES_ON_END;
   private boolean isPreallocateBodyBuffer = DEFAULT_PREALLOCATE_BODY_BUFFER;
-  private static final int DEFAULT_INITIAL_BODY_BUFFER_SIZE = 1024; //bytes
-
+  private long bodySpillThreshold = DEFAULT_BODY_SPILL_THRESHOLD;
 
   public BodyHandlerImpl() {
     this(true, DEFAULT_UPLOADS_DIRECTORY);
@@ -133,6 +136,12 @@ public class BodyHandlerImpl implements BodyHandler {
     return this;
   }
 
+  @Override
+  public BodyHandler setBodySpillThreshold(long bodySpillThreshold) {
+    this.bodySpillThreshold = bodySpillThreshold;
+    return this;
+  }
+
   private long parseContentLengthHeader(HttpServerRequest request) {
     String contentLength = request.getHeader(HttpHeaders.CONTENT_LENGTH);
     if(contentLength == null || contentLength.isEmpty()) {
@@ -140,7 +149,7 @@ public class BodyHandlerImpl implements BodyHandler {
     }
     try {
       long parsedContentLength = Long.parseLong(contentLength);
-      return  parsedContentLength < 0 ? null : parsedContentLength;
+      return parsedContentLength < 0 ? -1 : parsedContentLength;
     }
     catch (NumberFormatException ex) {
       return -1;
@@ -152,11 +161,17 @@ public class BodyHandlerImpl implements BodyHandler {
 
     RoutingContext context;
     Buffer body;
+    // the received chunks backing the body when it is not pre-allocated
+    CompositeByteBuf chunks;
     boolean failed;
     AtomicInteger uploadCount = new AtomicInteger();
     AtomicBoolean cleanup = new AtomicBoolean(false);
     boolean ended;
     long uploadSize = 0L;
+    // the body is spilled to this file once it grows over the threshold
+    String bodyFileName;
+    AsyncFile bodyFile;
+    boolean endPending;
     final boolean isMultipart;
     final boolean isUrlEncoded;
 
@@ -208,6 +223,7 @@ public class BodyHandlerImpl implements BodyHandler {
       }
 
       context.request().exceptionHandler(t -> {
+        failed = true;
         deleteFileUploads();
         if (t instanceof DecoderException) {
           // bad request
@@ -219,22 +235,15 @@ public class BodyHandlerImpl implements BodyHandler {
     }
 
     private void initBodyBuffer(long contentLength) {
-      int initialBodyBufferSize;
-      if(contentLength < 0) {
-        initialBodyBufferSize = DEFAULT_INITIAL_BODY_BUFFER_SIZE;
-      }
-      else if(contentLength > MAX_PREALLOCATED_BODY_BUFFER_BYTES) {
-        initialBodyBufferSize = MAX_PREALLOCATED_BODY_BUFFER_BYTES;
-      }
-      else {
-        initialBodyBufferSize = (int) contentLength;
-      }
-
-      if(bodyLimit != -1) {
-        initialBodyBufferSize = (int)Math.min(initialBodyBufferSize, bodyLimit);
+      if (contentLength >= 0 && contentLength <= MAX_PREALLOCATED_BODY_BUFFER_BYTES) {
+        int initialBodyBufferSize = (int) contentLength;
+        if (bodyLimit != -1) {
+          initialBodyBufferSize = (int) Math.min(initialBodyBufferSize, bodyLimit);
+        }
+        this.body = Buffer.buffer(initialBodyBufferSize);
       }
-
-      this.body = Buffer.buffer(initialBodyBufferSize);
+      // otherwise the size is unknown or too large to be reserved upfront, the chunks are kept as they arrive instead
+      // of being copied each time the buffer grows, see appendBody
     }
 
     private void makeUploadDir(FileSystem fileSystem) {
@@ -259,8 +268,88 @@ public class BodyHandlerImpl implements BodyHandler {
         // url encoded should also not, however jQuery by default
         // post in urlencoded even if the payload is something else
         if (!isMultipart /* && !isUrlEncoded */) {
-          body.appendBuffer(buff);
+          if (bodyFile != null) {
+            writeBody(buff);
+          } else {
+            // until the file is open the body is kept in memory
+            appendBody(buff);
+            if (bodyFileName == null && bodySpillThreshold != -1 && bodyLength() > bodySpillThreshold) {
+              spillBody();
+            }
+          }
+        }
+      }
+    }
+
+    private void appendBody(Buffer buff) {
+      if (body != null) {
+        body.appendBuffer(buff);
+        return;
+      }
+      if (chunks == null) {
+        // created on the first chunk, requests without a body never allocate it
+        // RoutingContext#getBody() makes the body contiguous when needed
+        chunks = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+      }
+      // the server hands over chunks it does not reuse, they can be kept without copying
+      chunks.addComponent(true, buff.getByteBuf());
+    }
+
+    private int bodyLength() {
+      if (body != null) {
+        return body.length();
+      }
+      return chunks != null ? chunks.readableBytes() : 0;
+    }
+
+    private Buffer body() {
+      if (body != null) {
+        return body;
+      }
+      return chunks != null ? Buffer.buffer(chunks) : Buffer.buffer();
+    }
+
+    private void spillBody() {
+      final FileSystem fileSystem = context.vertx().fileSystem();
+      makeUploadDir(fileSystem);
+      bodyFileName = new File(uploadsDir, UUID.randomUUID().toString()).getPath();
+      context.request().pause();
+      fileSystem.open(bodyFileName, new OpenOptions(), res -> {
+        if (res.failed()) {
+          failed = true;
+          context.fail(res.cause());
+          return;
         }
+        if (failed || cleanup.get()) {
+          // the request failed while the file was being opened, the cleanup could not close it
+          body = null;
+          chunks = null;
+          res.result().close(v -> deleteFile(bodyFileName));
+          return;
+        }
+        bodyFile = res.result();
+        bodyFile.exceptionHandler(t -> {
+          failed = true;
+          deleteFileUploads();
+          context.fail(t);
+        });
+        final Buffer pending = body();
+        body = null;
+        chunks = null;
+        writeBody(pending);
+        if (endPending) {
+          doEnd();
+        } else if (!bodyFile.writeQueueFull()) {
+          context.request().resume();
+        }
+      });
+    }
+
+    private void writeBody(Buffer buff) {
+      bodyFile.write(buff);
+      if (bodyFile.writeQueueFull()) {
+        context.request().pause();
+        bodyFile.drainHandler(v -> context.request().resume());
       }
     }
 
@@ -290,6 +379,12 @@ public class BodyHandlerImpl implements BodyHandler {
         return;
       }
 
+      if (bodyFileName != null && bodyFile == null) {
+        // the body file is still being opened
+        endPending = true;
+        return;
+      }
+
       if (deleteUploadedFilesOnEnd) {
         context.addBodyEndHandler(x -> deleteFileUploads());
       }
@@ -298,31 +393,59 @@ public class BodyHandlerImpl implements BodyHandler {
       if (mergeFormAttributes && req.isExpectMultipart()) {
         req.params().addAll(req.formAttributes());
       }
-      context.setBody(body);
+      if (bodyFile != null) {
+        // flush the body before handing it over
+        bodyFile.close(res -> {
+          if (res.failed()) {
+            deleteFileUploads();
+            context.fail(res.cause());
+            return;
+          }
+          context.setBodyFileName(bodyFileName);
+          context.next();
+        });
+        return;
+      }
+
+      context.setBody(body());
 
       body = null;
+      chunks = null;
 
       context.next();
     }
 
     private void deleteFileUploads() {
-      if (cleanup.compareAndSet(false, true) && handleFileUploads) {
-        for (FileUpload fileUpload : context.fileUploads()) {
-          FileSystem fileSystem = context.vertx().fileSystem();
-          String uploadedFileName = fileUpload.uploadedFileName();
-          fileSystem.exists(uploadedFileName, existResult -> {
-            if (existResult.failed()) {
-              log.warn("Could not detect if uploaded file exists, not deleting: " + uploadedFileName, existResult.cause());
-            } else if (existResult.result()) {
-              fileSystem.delete(uploadedFileName, deleteResult -> {
-                if (deleteResult.failed()) {
-                  log.warn("Delete of uploaded file failed: " + uploadedFileName, deleteResult.cause());
-                }
-              });
+      if (cleanup.compareAndSet(false, true)) {
+        if (handleFileUploads) {
+          for (FileUpload fileUpload : context.fileUploads()) {
+            deleteFile(fileUpload.uploadedFileName());
+          }
+        }
+        if (bodyFileName != null) {
+          if (bodyFile != null) {
+            // closing an already closed file fails, the file can be deleted anyway
+            bodyFile.close(v -> deleteFile(bodyFileName));
+          } else {
+            deleteFile(bodyFileName);
+          }
+        }
+      }
+    }
+
+    private void deleteFile(String uploadedFileName) {
+      FileSystem fileSystem = context.vertx().fileSystem();
+      fileSystem.exists(uploadedFileName, existResult -> {
+        if (existResult.failed()) {
+          log.warn("Could not detect if uploaded file exists, not deleting: " + uploadedFileName, existResult.cause());
+        } else if (existResult.result()) {
+          fileSystem.delete(uploadedFileName, deleteResult -> {
+            if (deleteResult.failed()) {
+              log.warn("Delete of uploaded file failed: " + uploadedFileName, deleteResult.cause());
             }
           });
         }
-      }
+      });
     }
   }
 
@@ -29,6 +29,7 @@ import io.vertx.ext.web.handler.SessionHandler;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 
@@ -43,7 +44,8 @@ public class CSRFHandlerImpl implements CSRFHandler {
   private static final Base64.Encoder BASE64 = Base64.getMimeEncoder();
 
   private final VertxContextPRNG random;
-  private final Mac mac;
+  // a Mac is not thread-safe, every thread signs with its own
+  private final ThreadLocal<Mac> mac;
 
   private boolean nagHttps;
   private String cookieName = DEFAULT_COOKIE_NAME;
@@ -53,10 +55,18 @@ public class CSRFHandlerImpl implements CSRFHandler {
   private long timeout = SessionHandler.DEFAULT_SESSION_TIMEOUT;
 
   public CSRFHandlerImpl(final Vertx vertx, final String secret) {
+    random = VertxContextPRNG.current(vertx);
+    final SecretKeySpec key = new SecretKeySpec(secret.getBytes(), "HmacSHA256");
+    mac = ThreadLocal.withInitial(() -> createMac(key));
+    // fail on an invalid key now rather than on the first request
+    mac.get();
+  }
+
+  private static Mac createMac(SecretKeySpec key) {
     try {
-      random = VertxContextPRNG.current(vertx);
-      mac = Mac.getInstance("HmacSHA256");
-      mac.init(new SecretKeySpec(secret.getBytes(), "HmacSHA256"));
+      final Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(key);
+      return mac;
     } catch (NoSuchAlgorithmException | InvalidKeyException e) {
       throw new RuntimeException(e);
     }
@@ -103,7 +113,7 @@ public class CSRFHandlerImpl implements CSRFHandler {
     random.nextBytes(salt);
 
     String saltPlusToken = BASE64.encodeToString(salt) + "." + System.currentTimeMillis();
-    String signature = BASE64.encodeToString(mac.doFinal(saltPlusToken.getBytes()));
+    String signature = BASE64.encodeToString(mac.get().doFinal(saltPlusToken.getBytes()));
 
     final String token = saltPlusToken + "." + signature;
     // a new token was generated add it to the cookie
@@ -146,24 +156,23 @@ public class CSRFHandlerImpl implements CSRFHandler {
       return false;
     }
 
-    String[] tokens = challenge.split("\\.");
-    if (tokens.length != 3) {
+    final int dot1 = challenge.indexOf('.');
+    final int dot2 = dot1 == -1 ? -1 : challenge.indexOf('.', dot1 + 1);
+    if (dot2 == -1 || challenge.indexOf('.', dot2 + 1) != -1) {
       return false;
     }
 
-    byte[] saltPlusToken = (tokens[0] + "." + tokens[1]).getBytes();
-    synchronized (mac) {
-      saltPlusToken = mac.doFinal(saltPlusToken);
-    }
-    String signature = BASE64.encodeToString(saltPlusToken);
-
-    if(!signature.equals(tokens[2])) {
-      return false;
+    // a token from the session was issued and signed by this handler, the user agent cannot forge it
+    if (!invalidateSessionToken) {
+      byte[] signature = BASE64.encode(mac.get().doFinal(challenge.substring(0, dot2).getBytes()));
+      if (!MessageDigest.isEqual(signature, challenge.substring(dot2 + 1).getBytes())) {
+        return false;
+      }
     }
 
     try {
       // validate validity
-      if (!(System.currentTimeMillis() > Long.parseLong(tokens[1]) + timeout)) {
+      if (!(System.currentTimeMillis() > Long.parseLong(challenge.substring(dot1 + 1, dot2)) + timeout)) {
         if (invalidateSessionToken) {
           // this token has been used and we discard it to avoid replay attacks
           ctx.session().remove(headerName);
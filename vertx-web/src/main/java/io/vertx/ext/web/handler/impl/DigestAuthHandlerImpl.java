@@ -31,10 +31,15 @@ import io.vertx.ext.web.handler.DigestAuthHandler;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.Set;
 
 /**
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -47,66 +52,118 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler implements D
   private static final String DEFAULT_NONCE_MAP_NAME = "htdigest.nonces";
 
   /**
-   * Shareable objects should be immutable.
+   * The nonces of the handlers of a Vert.x instance. Nonces are indexed by the second they expire, so expired nonces are
+   * removed without visiting the live ones.
+   * <p>
+   * This class is thread-safe
    */
-  private static class Nonce implements Shareable {
-    private final long createdAt;
-    private final int count;
+  private static final class Nonces implements Shareable {
+
+    private static final long RESOLUTION = 1000;
+
+    private final ConcurrentMap<String, Nonce> nonces = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Queue<String>> buckets = new ConcurrentSkipListMap<>();
+
+    void add(String nonce, long now, long timeout) {
+      final long expires = now + timeout;
+      nonces.put(nonce, new Nonce(expires));
+      // the bucket is only due once the nonce expired
+      final long bucket = expires / RESOLUTION + 1;
+      final Queue<String> queue = buckets.computeIfAbsent(bucket, k -> new ConcurrentLinkedQueue<>());
+      queue.add(nonce);
+      if (buckets.get(bucket) != queue) {
+        // the bucket was expired meanwhile
+        nonces.remove(nonce);
+      }
+    }
+
+    /**
+     * @return the nonce or {@code null} if it is unknown or expired
+     */
+    Nonce get(String nonce, long now) {
+      final Nonce n = nonces.get(nonce);
+      return n == null || n.expires < now ? null : n;
+    }
+
+    void expire(long now) {
+      final long due = now / RESOLUTION;
+      Map.Entry<Long, Queue<String>> bucket;
+      while ((bucket = buckets.firstEntry()) != null && bucket.getKey() <= due) {
+        // concurrent passes remove each bucket once
+        if (buckets.remove(bucket.getKey(), bucket.getValue())) {
+          for (String nonce : bucket.getValue()) {
+            nonces.remove(nonce);
+          }
+        }
+      }
+    }
+  }
+
+  private static final class Nonce {
+    private final long expires;
+    private final AtomicInteger count = new AtomicInteger();
 
-    Nonce(int count) {
-      this(System.currentTimeMillis(), count);
+    Nonce(long expires) {
+      this.expires = expires;
     }
 
-    Nonce(long createdAt, int count) {
-      this.createdAt = createdAt;
-      this.count = count;
+    /**
+     * Records the nonce count of a request.
+     *
+     * @return {@code false} if the count was already used, the request is replayed
+     */
+    boolean count(int nc) {
+      for (;;) {
+        final int current = count.get();
+        if (nc <= current) {
+          return false;
+        }
+        if (count.compareAndSet(current, nc)) {
+          return true;
+        }
+      }
     }
   }
 
   private static final Pattern PARSER = Pattern.compile("(\\w+)=[\"]?([^\"]*)[\"]?$");
   private static final Pattern SPLITTER = Pattern.compile(",(?=(?:[^\"]|\"[^\"]*\")*$)");
 
-  private static final MessageDigest MD5;
-
-  static {
+  // a MessageDigest is not thread-safe
+  private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
     try {
-      MD5 = MessageDigest.getInstance("MD5");
+      return MessageDigest.getInstance("MD5");
     } catch (NoSuchAlgorithmException e) {
       throw new RuntimeException(e);
     }
-  }
+  });
 
   private final VertxContextPRNG random;
-  private final LocalMap<String, Nonce> nonces;
+  private final Nonces nonces;
 
   private final long nonceExpireTimeout;
 
-  private long lastExpireRun;
-
   public DigestAuthHandlerImpl(Vertx vertx, HtdigestAuth authProvider, long nonceExpireTimeout) {
     super(authProvider, authProvider.realm(), Type.DIGEST);
     random = VertxContextPRNG.current(vertx);
-    nonces = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME);
+    // the nonces are shared by the handlers of this Vert.x instance
+    final LocalMap<String, Nonces> map = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME);
+    Nonces nonces = map.get(DEFAULT_NONCE_MAP_NAME);
+    if (nonces == null) {
+      final Nonces created = new Nonces();
+      nonces = map.putIfAbsent(DEFAULT_NONCE_MAP_NAME, created);
+      if (nonces == null) {
+        nonces = created;
+      }
+    }
+    this.nonces = nonces;
     this.nonceExpireTimeout = nonceExpireTimeout;
   }
 
   @Override
   public void parseCredentials(RoutingContext context, Handler<AsyncResult<JsonObject>> handler) {
     // clean up nonce
-    long now = System.currentTimeMillis();
-    if (now - lastExpireRun > nonceExpireTimeout / 2) {
-      Set<String> toRemove = new HashSet<>();
-      nonces.forEach((String key, Nonce n) -> {
-        if (n != null && n.createdAt + nonceExpireTimeout < now) {
-          toRemove.add(key);
-        }
-      });
-
-      for (String n : toRemove) {
-        nonces.remove(n);
-      }
-      lastExpireRun = now;
-    }
+    final long now = System.currentTimeMillis();
+    nonces.expire(now);
 
     parseAuthorization(context, false, parseAuthorization -> {
       if (parseAuthorization.failed()) {
@@ -136,7 +193,8 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler implements D
         final String nonce = authInfo.getString("nonce");
 
         // check for expiration
-        if (!nonces.containsKey(nonce)) {
+        final Nonce n = nonce == null ? null : nonces.get(nonce, now);
+        if (n == null) {
           handler.handle(Future.failedFuture(UNAUTHORIZED));
           return;
         }
@@ -144,23 +202,21 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler implements D
         // check for nonce counter (prevent replay attack)
         if (authInfo.containsKey("qop")) {
           int nc = Integer.parseInt(authInfo.getString("nc"), 16);
-          final Nonce n = nonces.get(nonce);
-          if (nc <= n.count) {
+          if (!n.count(nc)) {
             handler.handle(Future.failedFuture(UNAUTHORIZED));
             return;
           }
-          // update the nounce count
-          nonces.put(nonce, new Nonce(n.createdAt, nc));
         }
 
       } catch (RuntimeException e) {
         handler.handle(Future.failedFuture(e));
+        return;
       }
 
       // validate the opaque value
       final Session session = context.session();
       if (session != null) {
-        String opaque = (String) session.data().get("opaque");
+        String opaque = session.get("opaque");
         if (opaque != null && !opaque.equals(authInfo.getString("opaque"))) {
           handler.handle(Future.failedFuture(UNAUTHORIZED));
           return;
@@ -181,13 +237,13 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler implements D
     // generate nonce
     String nonce = md5(bytes);
     // save it
-    nonces.put(nonce, new Nonce(0));
+    nonces.add(nonce, System.currentTimeMillis(), nonceExpireTimeout);
 
     // generate opaque
     String opaque = null;
     final Session session = context.session();
     if (session != null) {
-      opaque = (String) session.data().get("opaque");
+      opaque = session.get("opaque");
     }
 
     if (opaque == null) {
@@ -211,8 +267,7 @@ public class DigestAuthHandlerImpl extends HTTPAuthorizationHandler implements D
     return new String(hexChars);
   }
 
-  private static synchronized String md5(byte[] payload) {
-    MD5.reset();
-    return bytesToHex(MD5.digest(payload));
+  private static String md5(byte[] payload) {
+    return bytesToHex(MD5.get().digest(payload));
   }
 }
@@ -23,6 +23,7 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.AuthenticationCache;
 import io.vertx.ext.web.handler.JWTAuthHandler;
 
 import java.util.List;
@@ -70,6 +71,12 @@ public class JWTAuthHandlerImpl extends HTTPAuthorizationHandler implements JWTA
     });
   }
 
+  @Override
+  public JWTAuthHandler setAuthenticationCache(AuthenticationCache authenticationCache) {
+    authenticationCache(authenticationCache);
+    return this;
+  }
+
   @Override
   public String authenticateHeader(RoutingContext context) {
     if (realm != null && realm.length() > 0) {
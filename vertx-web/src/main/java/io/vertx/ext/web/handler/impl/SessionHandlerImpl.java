@@ -28,6 +28,7 @@ import io.vertx.ext.auth.AuthProvider;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.SessionHandler;
+import io.vertx.ext.web.sstore.AbstractSession;
 import io.vertx.ext.web.sstore.SessionStore;
 
 /**
@@ -181,14 +182,20 @@ public class SessionHandlerImpl implements SessionHandler {
           // if lazy mode activated, no need to store the session nor to create the session cookie if not used.
           sessionCookie(context, session);
           session.setAccessed();
-          sessionStore.put(session, put -> {
+          final Handler<AsyncResult<Void>> stored = put -> {
             if (put.failed()) {
               handler.handle(Future.failedFuture(put.cause()));
             } else {
               context.put(SESSION_FLUSHED_KEY, true);
               handler.handle(Future.succeededFuture());
             }
-          });
+          };
+          if (session instanceof AbstractSession && !((AbstractSession) session).isDirty()) {
+            // nothing changed, the store only needs to extend the life of the session
+            sessionStore.touch(session, stored);
+          } else {
+            sessionStore.put(session, stored);
+          }
         }
       }
     } else {
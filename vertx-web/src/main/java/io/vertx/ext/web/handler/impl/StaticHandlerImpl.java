@@ -16,27 +16,44 @@
 
 package io.vertx.ext.web.handler.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.*;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
 import io.vertx.core.file.FileProps;
 import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.OpenOptions;
 import io.vertx.core.http.*;
 import io.vertx.core.http.impl.HttpUtils;
 import io.vertx.core.http.impl.MimeMapping;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.net.impl.URIDecoder;
 import io.vertx.ext.web.Http2PushMapping;
+import io.vertx.ext.web.ParsedHeaderValue;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.common.impl.ConcurrentLRUCache;
 import io.vertx.ext.web.handler.StaticHandler;
-import io.vertx.ext.web.impl.LRUCache;
 import io.vertx.ext.web.impl.Utils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.*;
 
@@ -51,6 +68,9 @@ public class StaticHandlerImpl implements StaticHandler {
 
   private static final Logger log = LoggerFactory.getLogger(StaticHandlerImpl.class);
 
+  // files larger than this are tagged from their size and modification time instead of being hashed
+  private static final long MAX_CONTENT_ETAG_SIZE = 1024 * 1024;
+
   private String webRoot = DEFAULT_WEB_ROOT;
   private long maxAgeSeconds = DEFAULT_MAX_AGE_SECONDS; // One day
   private boolean directoryListing = DEFAULT_DIRECTORY_LISTING;
@@ -63,6 +83,8 @@ public class StaticHandlerImpl implements StaticHandler {
   private boolean rangeSupport = DEFAULT_RANGE_SUPPORT;
   private boolean allowRootFileSystemAccess = DEFAULT_ROOT_FILESYSTEM_ACCESS;
   private boolean sendVaryHeader = DEFAULT_SEND_VARY_HEADER;
+  private boolean precompressedFiles = DEFAULT_PRECOMPRESSED_FILES;
+  private boolean etagSupport = DEFAULT_ENABLE_ETAG;
   private String defaultContentEncoding = Charset.defaultCharset().name();
 
   private Set<String> compressedMediaTypes = Collections.emptySet();
@@ -70,6 +92,9 @@ public class StaticHandlerImpl implements StaticHandler {
 
   private final FSTune tune = new FSTune();
   private final FSPropsCache cache = new FSPropsCache();
+  private final FSContentCache contentCache = new FSContentCache();
+  // the tags being computed, concurrent requests for the same file version wait for the same computation
+  private final ConcurrentMap<String, Future<String>> pendingETags = new ConcurrentHashMap<>();
 
   private String directoryTemplate(Vertx vertx) {
     if (directoryTemplate == null) {
@@ -89,8 +114,8 @@ public class StaticHandlerImpl implements StaticHandler {
     MultiMap headers = request.response().headers();
 
     if (cache.enabled()) {
-      // We use cache-control and last-modified
-      // We *do not use* etags and expires (since they do the same thing - redundant)
+      // We use cache-control and last-modified, and etags when enabled
+      // We *do not use* expires (since it does the same thing as cache-control - redundant)
       Utils.addToMapIfAbsent(headers, HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAgeSeconds);
       Utils.addToMapIfAbsent(headers, HttpHeaders.LAST_MODIFIED, Utils.formatRFC1123DateTime(props.lastModifiedTime()));
       // We send the vary header (for intermediate caches)
@@ -161,12 +186,27 @@ public class StaticHandlerImpl implements StaticHandler {
         // a hit needs to be verified for freshness
         final long lastModified = Utils.secondsFactor(entry.props.lastModifiedTime());
 
+        if (entry.etag != null) {
+          context.response().putHeader(HttpHeaders.ETAG, entry.etag);
+        }
+
         if (Utils.fresh(context, lastModified)) {
           context.response()
             .setStatusCode(NOT_MODIFIED.code())
             .end();
           return;
         }
+
+        // a hot file can be served from memory without touching the file system
+        if (contentCache.enabled()) {
+          if (file == null) {
+            file = getFile(path, context);
+          }
+          if (contentCache.get(file, entry.props) != null) {
+            sendFile(context, path, file, entry.props);
+            return;
+          }
+        }
       }
     }
 
@@ -206,16 +246,20 @@ public class StaticHandlerImpl implements StaticHandler {
                 cache.remove(path);
               }
               sendDirectory(context, path, sfile);
+            } else if (!cache.enabled()) {
+              sendFile(context, path, sfile, fprops);
+            } else if (!etagSupport) {
+              sendFileIfModified(context, path, sfile, fprops, null);
+            } else if (entry != null && entry.matches(fprops) && entry.etag != null) {
+              // the content did not change, the tag is still valid
+              sendFileIfModified(context, path, sfile, fprops, entry.etag);
             } else {
-              if (cache.enabled()) {
-                cache.put(path, fprops);
-
-                if (Utils.fresh(context, Utils.secondsFactor(fprops.lastModifiedTime()))) {
-                  context.response().setStatusCode(NOT_MODIFIED.code()).end();
-                  return;
+              computeETag(context, sfile, fprops, tag -> {
+                if (tag.failed()) {
+                  log.debug("Could not compute the ETag of " + sfile, tag.cause());
                 }
-              }
-              sendFile(context, sfile, fprops);
+                sendFileIfModified(context, path, sfile, fprops, tag.result());
+              });
             }
           } else {
             context.fail(res.cause());
@@ -224,6 +268,63 @@ public class StaticHandlerImpl implements StaticHandler {
       });
   }
 
+  private void sendFileIfModified(RoutingContext context, String path, String file, FileProps fileProps, String etag) {
+    cache.put(path, fileProps, etag);
+
+    if (etag != null) {
+      context.response().putHeader(HttpHeaders.ETAG, etag);
+    }
+
+    if (Utils.fresh(context, Utils.secondsFactor(fileProps.lastModifiedTime()))) {
+      context.response().setStatusCode(NOT_MODIFIED.code()).end();
+      return;
+    }
+
+    sendFile(context, path, file, fileProps);
+  }
+
+  /**
+   * Computes a strong entity tag from the content of the file, off the event loop. Large files are tagged from their
+   * size and modification time to not read them entirely.
+   */
+  private void computeETag(RoutingContext context, String file, FileProps props, Handler<AsyncResult<String>> handler) {
+    if (props.size() > MAX_CONTENT_ETAG_SIZE) {
+      handler.handle(Future.succeededFuture(
+        "\"" + Long.toHexString(props.size()) + "-" + Long.toHexString(props.lastModifiedTime()) + "\""));
+      return;
+    }
+
+    final String key = file + '@' + props.size() + '@' + props.lastModifiedTime();
+    final Promise<String> promise = Promise.promise();
+    final Future<String> pending = pendingETags.putIfAbsent(key, promise.future());
+    if (pending != null) {
+      // the computation completes on the context of the request that started it
+      final Context ctx = context.vertx().getOrCreateContext();
+      pending.onComplete(tag -> ctx.runOnContext(v -> handler.handle(tag)));
+      return;
+    }
+    promise.future().onComplete(handler);
+
+    context.vertx().<String>executeBlocking(fut -> {
+      // classpath resources are resolved to the file cache
+      final File resolved = ((VertxInternal) context.vertx()).resolveFile(file);
+      try (InputStream in = new FileInputStream(resolved)) {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          digest.update(buffer, 0, read);
+        }
+        fut.complete("\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"");
+      } catch (IOException | NoSuchAlgorithmException e) {
+        fut.fail(e);
+      }
+    }, false, tag -> {
+      pendingETags.remove(key);
+      promise.handle(tag);
+    });
+  }
+
   private void sendDirectory(RoutingContext context, String path, String file) {
     // in order to keep caches in a valid state we need to assert that
     // the user is requesting a directory (ends with /)
@@ -273,9 +374,98 @@ public class StaticHandlerImpl implements StaticHandler {
     }
   }
 
-  private static final Pattern RANGE = Pattern.compile("^bytes=(\\d+)-(\\d*)$");
+  private static final Pattern RANGE = Pattern.compile("^(\\d*)-(\\d*)$");
+  // more ranges than this are not worth a multipart response, the whole file is sent instead
+  private static final int MAX_RANGES = 64;
+  private static final int RANGE_CHUNK_SIZE = 64 * 1024;
+
+  private void sendFile(RoutingContext context, String path, String file, FileProps fileProps) {
+    if (precompressedFiles) {
+      // the variant depends on the request
+      Utils.addToMapIfAbsent(context.response().headers(), "Vary", "accept-encoding");
+      sendPrecompressed(context, path, file, fileProps, precompressedEncodings(context), 0);
+    } else {
+      sendFile(context, file, file, fileProps, null);
+    }
+  }
+
+  private void sendPrecompressed(RoutingContext context, String path, String file, FileProps fileProps, List<String> encodings, int index) {
+    if (index == encodings.size()) {
+      sendFile(context, file, file, fileProps, null);
+      return;
+    }
+
+    final String encoding = encodings.get(index);
+    final String suffix = "br".equals(encoding) ? ".br" : ".gz";
+    final String variant = file + suffix;
+    // the variant is cached as if it was requested directly
+    final CacheEntry entry = cache.get(path + suffix);
+
+    if (entry != null && (filesReadOnly || !entry.isOutOfDate())) {
+      if (entry.isMissing() || !entry.props.isRegularFile()) {
+        sendPrecompressed(context, path, file, fileProps, encodings, index + 1);
+      } else {
+        sendFile(context, file, variant, entry.props, encoding);
+      }
+      return;
+    }
+
+    getFileProps(context, variant, res -> {
+      final FileProps props = res.succeeded() ? res.result() : null;
+      cache.put(path + suffix, props);
+      if (props == null || !props.isRegularFile()) {
+        sendPrecompressed(context, path, file, fileProps, encodings, index + 1);
+      } else {
+        sendFile(context, file, variant, props, encoding);
+      }
+    });
+  }
+
+  /**
+   * The encodings accepted by the client a precompressed variant can be looked up for, in order of preference. Brotli
+   * is preferred when the client has no preference.
+   */
+  private static List<String> precompressedEncodings(RoutingContext context) {
+    float br = -1;
+    float gzip = -1;
+    float any = -1;
+    for (ParsedHeaderValue value : context.parsedHeaders().acceptEncoding()) {
+      if ("br".equalsIgnoreCase(value.value())) {
+        br = value.weight();
+      } else if ("gzip".equalsIgnoreCase(value.value())) {
+        gzip = value.weight();
+      } else if ("*".equals(value.value())) {
+        any = value.weight();
+      }
+    }
+    if (br < 0) {
+      br = any;
+    }
+    if (gzip < 0) {
+      gzip = any;
+    }
+
+    final List<String> encodings = new ArrayList<>(2);
+    if (br > 0 && br >= gzip) {
+      encodings.add("br");
+    }
+    if (gzip > 0) {
+      encodings.add("gzip");
+    }
+    if (br > 0 && br < gzip) {
+      encodings.add("br");
+    }
+    return encodings;
+  }
 
-  private void sendFile(RoutingContext context, String file, FileProps fileProps) {
+  /**
+   * Sends a file.
+   *
+   * @param source          the requested file, it determines the content type
+   * @param file            the file to send, a precompressed variant of the source or the source itself
+   * @param contentEncoding the encoding of a precompressed variant or {@code null}
+   */
+  private void sendFile(RoutingContext context, String source, String file, FileProps fileProps, String contentEncoding) {
     final HttpServerRequest request = context.request();
     final HttpServerResponse response = context.response();
 
@@ -286,38 +476,33 @@ public class StaticHandlerImpl implements StaticHandler {
     if (response.closed())
       return;
 
+    if (contentEncoding != null) {
+      // ranges apply to the encoded bytes and the server must not compress them again
+      response.putHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+      weakenETag(response);
+    }
+
+    List<long[]> ranges = null;
+
     if (rangeSupport) {
-      // check if the client is making a range request
-      String range = request.getHeader("Range");
+      // check if the client is making a range request, ranges only apply to GET
+      String range = request.method() == HttpMethod.GET ? request.getHeader("Range") : null;
       // end byte is length - 1
       end = fileProps.size() - 1;
 
-      if (range != null) {
-        Matcher m = RANGE.matcher(range);
-        if (m.matches()) {
-          try {
-            String part = m.group(1);
-            // offset cannot be empty
-            offset = Long.parseLong(part);
-            // offset must fall inside the limits of the file
-            if (offset < 0 || offset >= fileProps.size()) {
-              throw new IndexOutOfBoundsException();
-            }
-            // length can be empty
-            part = m.group(2);
-            if (part != null && part.length() > 0) {
-              // ranges are inclusive
-              end = Math.min(end, Long.parseLong(part));
-              // end offset must not be smaller than start offset
-              if (end < offset) {
-                throw new IndexOutOfBoundsException();
-              }
-            }
-          } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      if (range != null && ifRange(request, fileProps)) {
+        ranges = parseRanges(range, fileProps.size());
+        if (ranges != null) {
+          if (ranges.isEmpty()) {
             context.response().putHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileProps.size());
             context.fail(REQUESTED_RANGE_NOT_SATISFIABLE.code());
             return;
           }
+          if (ranges.size() == 1) {
+            offset = ranges.get(0)[0];
+            end = ranges.get(0)[1];
+            ranges = null;
+          }
         }
       }
 
@@ -333,7 +518,9 @@ public class StaticHandlerImpl implements StaticHandler {
     if (request.method() == HttpMethod.HEAD) {
       response.end();
     } else {
-      if (rangeSupport && offset != null) {
+      if (ranges != null) {
+        sendRanges(context, source, file, fileProps, ranges);
+      } else if (rangeSupport && offset != null) {
         // must return content range
         headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + offset + "-" + end + "/" + fileProps.size());
         // return a partial response
@@ -342,7 +529,7 @@ public class StaticHandlerImpl implements StaticHandler {
         final long finalOffset = offset;
         final long finalLength = end + 1 - offset;
         // guess content type
-        String contentType = MimeMapping.getMimeTypeForFilename(file);
+        String contentType = MimeMapping.getMimeTypeForFilename(source);
         if (contentType != null) {
           if (contentType.startsWith("text")) {
             response.putHeader(HttpHeaders.CONTENT_TYPE, contentType + ";charset=" + defaultContentEncoding);
@@ -358,9 +545,10 @@ public class StaticHandlerImpl implements StaticHandler {
         });
       } else {
         // guess content type
-        String extension = getFileExtension(file);
+        String extension = getFileExtension(source);
         String contentType = MimeMapping.getMimeTypeForExtension(extension);
-        if (compressedMediaTypes.contains(contentType) || compressedFileSuffixes.contains(extension)) {
+        final boolean compressed = contentEncoding != null || compressedMediaTypes.contains(contentType) || compressedFileSuffixes.contains(extension);
+        if (contentEncoding == null && compressed) {
           response.putHeader(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
         }
         if (contentType != null) {
@@ -418,13 +606,277 @@ public class StaticHandlerImpl implements StaticHandler {
           response.putHeader("Link", links);
         }
 
-        response.sendFile(file, res2 -> {
-          if (res2.failed()) {
-            context.fail(res2.cause());
+        if (cache.enabled() && contentCache.cacheable(fileProps)) {
+          sendContent(context, file, fileProps, !compressed);
+        } else {
+          response.sendFile(file, res2 -> {
+            if (res2.failed()) {
+              context.fail(res2.cause());
+            }
+          });
+        }
+      }
+    }
+  }
+
+  /**
+   * Validates the {@code If-Range} header of the request, the ranges are only sent when the file has not changed.
+   */
+  private boolean ifRange(HttpServerRequest request, FileProps fileProps) {
+    final String ifRange = request.getHeader("If-Range");
+    if (ifRange == null) {
+      return true;
+    }
+    if (ifRange.startsWith("\"")) {
+      // entity tags must be a strong match
+      return ifRange.equals(request.response().headers().get(HttpHeaders.ETAG));
+    }
+    if (ifRange.startsWith("W/")) {
+      return false;
+    }
+    // a date must be an exact match
+    return Utils.parseRFC1123DateTime(ifRange) == Utils.secondsFactor(fileProps.lastModifiedTime());
+  }
+
+  /**
+   * Parses a {@code Range} header into the satisfiable inclusive ranges of a file of the given size. Returns
+   * {@code null} when the header must be ignored.
+   */
+  private static List<long[]> parseRanges(String header, long size) {
+    if (!header.regionMatches(true, 0, "bytes=", 0, 6)) {
+      return null;
+    }
+
+    final String[] specs = header.substring(6).split(",");
+    if (specs.length > MAX_RANGES) {
+      return null;
+    }
+
+    final List<long[]> ranges = new ArrayList<>(specs.length);
+    for (String spec : specs) {
+      final Matcher m = RANGE.matcher(spec.trim());
+      if (!m.matches()) {
+        return null;
+      }
+      final String first = m.group(1);
+      final String last = m.group(2);
+      try {
+        final long start;
+        final long end;
+        if (first.isEmpty()) {
+          if (last.isEmpty()) {
+            return null;
           }
-        });
+          // suffix range, the last bytes of the file
+          start = Math.max(0, size - Long.parseLong(last));
+          end = size - 1;
+        } else {
+          start = Long.parseLong(first);
+          // ranges are inclusive, the end is capped to the file
+          end = last.isEmpty() ? size - 1 : Math.min(size - 1, Long.parseLong(last));
+        }
+        if (start < size && start <= end) {
+          ranges.add(new long[]{start, end});
+        }
+      } catch (NumberFormatException e) {
+        // too large to be satisfiable
       }
     }
+
+    if (ranges.size() < 2) {
+      return ranges;
+    }
+
+    // overlapping ranges are coalesced, otherwise the requested order is kept
+    final List<long[]> sorted = new ArrayList<>(ranges);
+    sorted.sort(Comparator.comparingLong(r -> r[0]));
+    final List<long[]> merged = new ArrayList<>(sorted.size());
+    long[] current = sorted.get(0);
+    for (int i = 1; i < sorted.size(); i++) {
+      final long[] next = sorted.get(i);
+      if (next[0] <= current[1] + 1) {
+        current = new long[]{current[0], Math.max(current[1], next[1])};
+      } else {
+        merged.add(current);
+        current = next;
+      }
+    }
+    merged.add(current);
+
+    return merged.size() == ranges.size() ? ranges : merged;
+  }
+
+  /**
+   * Sends several ranges of a file as a {@code multipart/byteranges} response.
+   */
+  private void sendRanges(RoutingContext context, String source, String file, FileProps fileProps, List<long[]> ranges) {
+    final HttpServerResponse response = context.response();
+    final String boundary = UUID.randomUUID().toString();
+    final String contentType = MimeMapping.getMimeTypeForFilename(source);
+
+    final List<Buffer> parts = new ArrayList<>(ranges.size());
+    long length = 0;
+    for (long[] range : ranges) {
+      final StringBuilder part = new StringBuilder()
+        .append("\r\n--").append(boundary).append("\r\n");
+      if (contentType != null) {
+        part.append(HttpHeaders.CONTENT_TYPE).append(": ").append(contentType);
+        if (contentType.startsWith("text")) {
+          part.append(";charset=").append(defaultContentEncoding);
+        }
+        part.append("\r\n");
+      }
+      part.append(HttpHeaders.CONTENT_RANGE).append(": bytes ")
+        .append(range[0]).append('-').append(range[1]).append('/').append(fileProps.size()).append("\r\n\r\n");
+      final Buffer buffer = Buffer.buffer(part.toString());
+      parts.add(buffer);
+      length += buffer.length() + range[1] + 1 - range[0];
+    }
+    final Buffer closing = Buffer.buffer("\r\n--" + boundary + "--\r\n");
+    length += closing.length();
+
+    response
+      .setStatusCode(PARTIAL_CONTENT.code())
+      .putHeader(HttpHeaders.CONTENT_TYPE, "multipart/byteranges; boundary=" + boundary)
+      .putHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(length));
+
+    context.vertx().fileSystem().open(file, new OpenOptions().setRead(true).setWrite(false).setCreate(false), open -> {
+      if (open.failed()) {
+        context.fail(open.cause());
+        return;
+      }
+      final AsyncFile asyncFile = open.result();
+      sendRange(response, asyncFile, parts, ranges, 0, -1, 0, res -> {
+        asyncFile.close();
+        if (res.failed()) {
+          context.fail(res.cause());
+        } else if (!response.closed()) {
+          response.end(closing);
+        }
+      });
+    });
+  }
+
+  /**
+   * Streams the remaining bytes of the current range, then the next ranges, honouring the back pressure of the
+   * response.
+   */
+  private static void sendRange(HttpServerResponse response, AsyncFile asyncFile, List<Buffer> parts, List<long[]> ranges, int index, long position, long remaining, Handler<AsyncResult<Void>> handler) {
+    if (response.closed()) {
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+    if (remaining == 0) {
+      if (index == ranges.size()) {
+        handler.handle(Future.succeededFuture());
+        return;
+      }
+      final long[] range = ranges.get(index);
+      response.write(parts.get(index));
+      sendRange(response, asyncFile, parts, ranges, index + 1, range[0], range[1] + 1 - range[0], handler);
+      return;
+    }
+
+    final int length = (int) Math.min(RANGE_CHUNK_SIZE, remaining);
+    asyncFile.read(Buffer.buffer(length), 0, position, length, read -> {
+      if (read.failed()) {
+        handler.handle(Future.failedFuture(read.cause()));
+        return;
+      }
+      final Buffer chunk = read.result();
+      if (chunk.length() == 0) {
+        handler.handle(Future.failedFuture(new IllegalStateException("File truncated while sending ranges")));
+        return;
+      }
+      if (response.closed()) {
+        handler.handle(Future.succeededFuture());
+        return;
+      }
+      response.write(chunk);
+      final long next = position + chunk.length();
+      final long left = remaining - chunk.length();
+      if (response.writeQueueFull()) {
+        response.drainHandler(v -> sendRange(response, asyncFile, parts, ranges, index, next, left, handler));
+      } else {
+        sendRange(response, asyncFile, parts, ranges, index, next, left, handler);
+      }
+    });
+  }
+
+  private void sendContent(RoutingContext context, String file, FileProps fileProps, boolean compressible) {
+    final CachedContent content = contentCache.get(file, fileProps);
+
+    if (content != null) {
+      writeContent(context, content);
+      return;
+    }
+
+    // load the file and compress it off the event loop, the next requests are served from memory
+    context.vertx().<CachedContent>executeBlocking(fut -> {
+      try {
+        final Buffer data = context.vertx().fileSystem().readFileBlocking(file);
+        fut.complete(CachedContent.create(data.getBytes(), fileProps, compressible));
+      } catch (IOException | RuntimeException e) {
+        fut.fail(e);
+      }
+    }, false, res -> {
+      final HttpServerResponse response = context.response();
+      if (response.closed() || response.ended()) {
+        return;
+      }
+      if (res.failed()) {
+        context.fail(res.cause());
+        return;
+      }
+      final CachedContent loaded = res.result();
+      if (loaded.matches(fileProps)) {
+        contentCache.put(file, loaded);
+      }
+      writeContent(context, loaded);
+    });
+  }
+
+  private void writeContent(RoutingContext context, CachedContent content) {
+    final HttpServerResponse response = context.response();
+    ByteBuf body = content.identity;
+
+    if (content.gzip != null) {
+      // the body now depends on the request
+      Utils.addToMapIfAbsent(response.headers(), "Vary", "accept-encoding");
+      if (acceptsEncoding(context, "gzip")) {
+        body = content.gzip;
+        response.putHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        weakenETag(response);
+      }
+    }
+
+    response.putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(body.readableBytes()));
+    // a duplicate keeps the shared content indexes untouched
+    response.end(Buffer.buffer(body.duplicate()));
+  }
+
+  /**
+   * The tag of a file is only a weak validator of its encoded variants, the same strong tag must not cover two
+   * different byte representations.
+   */
+  private static void weakenETag(HttpServerResponse response) {
+    final String etag = response.headers().get(HttpHeaders.ETAG);
+    if (etag != null && !etag.startsWith("W/")) {
+      response.putHeader(HttpHeaders.ETAG, "W/" + etag);
+    }
+  }
+
+  private static boolean acceptsEncoding(RoutingContext context, String encoding) {
+    boolean wildcard = false;
+    for (ParsedHeaderValue value : context.parsedHeaders().acceptEncoding()) {
+      if (encoding.equalsIgnoreCase(value.value())) {
+        return value.isPermitted();
+      }
+      if ("*".equals(value.value())) {
+        wildcard = value.isPermitted();
+      }
+    }
+    return wildcard;
   }
 
   @Override
@@ -561,6 +1013,30 @@ public class StaticHandlerImpl implements StaticHandler {
     return this;
   }
 
+  @Override
+  public StaticHandler setEnableETag(boolean enableETag) {
+    this.etagSupport = enableETag;
+    return this;
+  }
+
+  @Override
+  public StaticHandler setEnablePrecompressedFiles(boolean enablePrecompressedFiles) {
+    this.precompressedFiles = enablePrecompressedFiles;
+    return this;
+  }
+
+  @Override
+  public StaticHandler setMaxContentCacheSize(long maxContentCacheSize) {
+    contentCache.setMaxSize(maxContentCacheSize);
+    return this;
+  }
+
+  @Override
+  public StaticHandler setMaxContentCacheFileSize(long maxContentCacheFileSize) {
+    contentCache.setMaxFileSize(maxContentCacheFileSize);
+    return this;
+  }
+
   private String getFile(String path, RoutingContext context) {
     String file = webRoot + Utils.pathOffset(path, context);
     if (log.isTraceEnabled()) log.trace("File to serve is " + file);
@@ -692,10 +1168,16 @@ public class StaticHandlerImpl implements StaticHandler {
 
     final FileProps props;
     final long cacheEntryTimeout;
+    final String etag;
 
-    private CacheEntry(FileProps props, long cacheEntryTimeout) {
+    private CacheEntry(FileProps props, long cacheEntryTimeout, String etag) {
       this.props = props;
       this.cacheEntryTimeout = cacheEntryTimeout;
+      this.etag = etag;
+    }
+
+    boolean matches(FileProps props) {
+      return this.props != null && this.props.size() == props.size() && this.props.lastModifiedTime() == props.lastModifiedTime();
     }
 
     boolean isOutOfDate() {
@@ -767,7 +1249,7 @@ public class StaticHandlerImpl implements StaticHandler {
   }
 
   private static class FSPropsCache {
-    private Map<String, CacheEntry> propsCache;
+    private volatile Map<String, CacheEntry> propsCache;
     private long cacheEntryTimeout = DEFAULT_CACHE_ENTRY_TIMEOUT;
     private int maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
 
@@ -800,7 +1282,7 @@ public class StaticHandlerImpl implements StaticHandler {
           propsCache.clear();
         }
         if (enable) {
-          propsCache = new LRUCache<>(maxCacheSize);
+          propsCache = new ConcurrentLRUCache<>(maxCacheSize);
         } else {
           propsCache = null;
         }
@@ -829,10 +1311,112 @@ public class StaticHandlerImpl implements StaticHandler {
     }
 
     void put(String path, FileProps props) {
+      put(path, props, null);
+    }
+
+    void put(String path, FileProps props, String etag) {
       if (propsCache != null) {
-        CacheEntry now = new CacheEntry(props, cacheEntryTimeout);
+        CacheEntry now = new CacheEntry(props, cacheEntryTimeout, etag);
         propsCache.put(path, now);
       }
     }
   }
+
+  private static final class CachedContent {
+    final long lastModified;
+    final long size;
+    // off heap and never released, the memory is reclaimed once the entry is evicted and collected
+    final ByteBuf identity;
+    final ByteBuf gzip;
+
+    private CachedContent(long lastModified, long size, ByteBuf identity, ByteBuf gzip) {
+      this.lastModified = lastModified;
+      this.size = size;
+      this.identity = identity;
+      this.gzip = gzip;
+    }
+
+    static CachedContent create(byte[] data, FileProps props, boolean compressible) throws IOException {
+      ByteBuf gzip = null;
+      if (compressible) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+          gz.write(data);
+        }
+        // only worth keeping if it saves something
+        if (out.size() < data.length) {
+          gzip = direct(out.toByteArray());
+        }
+      }
+      return new CachedContent(props.lastModifiedTime(), data.length, direct(data), gzip);
+    }
+
+    boolean matches(FileProps props) {
+      return lastModified == props.lastModifiedTime() && size == props.size();
+    }
+
+    long weight() {
+      return identity.capacity() + (gzip == null ? 0 : gzip.capacity());
+    }
+
+    private static ByteBuf direct(byte[] data) {
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+      buffer.put(data);
+      buffer.flip();
+      return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(buffer));
+    }
+  }
+
+  private static class FSContentCache {
+    private volatile ConcurrentLRUCache<String, CachedContent> contentCache;
+    private volatile long maxFileSize = DEFAULT_MAX_CONTENT_CACHE_FILE_SIZE;
+
+    FSContentCache() {
+      setMaxSize(DEFAULT_MAX_CONTENT_CACHE_SIZE);
+    }
+
+    boolean enabled() {
+      return contentCache != null;
+    }
+
+    synchronized void setMaxSize(long maxSize) {
+      if (maxSize < 0) {
+        throw new IllegalArgumentException("maxContentCacheSize must be >= 0");
+      }
+      if (contentCache != null) {
+        contentCache.clear();
+      }
+      contentCache = maxSize == 0 ? null : new ConcurrentLRUCache<>(maxSize, CachedContent::weight);
+    }
+
+    void setMaxFileSize(long maxFileSize) {
+      if (maxFileSize < 1) {
+        throw new IllegalArgumentException("maxContentCacheFileSize must be >= 1");
+      }
+      this.maxFileSize = maxFileSize;
+    }
+
+    boolean cacheable(FileProps props) {
+      return contentCache != null && props.isRegularFile() && props.size() <= maxFileSize;
+    }
+
+    CachedContent get(String file, FileProps props) {
+      final Map<String, CachedContent> contentCache = this.contentCache;
+      if (contentCache != null) {
+        final CachedContent content = contentCache.get(file);
+        // stale content is replaced once the file is loaded again
+        if (content != null && content.matches(props)) {
+          return content;
+        }
+      }
+      return null;
+    }
+
+    void put(String file, CachedContent content) {
+      final Map<String, CachedContent> contentCache = this.contentCache;
+      if (contentCache != null) {
+        contentCache.put(file, content);
+      }
+    }
+  }
 }
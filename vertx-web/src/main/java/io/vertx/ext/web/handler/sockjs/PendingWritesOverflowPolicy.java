@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.handler.sockjs;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * What a SockJS session does when the messages written and not yet sent to the client exceed
+ * {@link SockJSHandlerOptions#getPendingWritesMaxSize()}.
+ */
+@VertxGen
+public enum PendingWritesOverflowPolicy {
+
+  /**
+   * The oldest pending messages are discarded, their write handlers are failed.
+   */
+  DROP_OLDEST,
+
+  /**
+   * The session is closed, the pending messages are discarded and their write handlers are failed.
+   */
+  CLOSE
+}
@@ -36,12 +36,16 @@ public class SockJSHandlerOptions {
   public static final long DEFAULT_HEARTBEAT_INTERVAL = 25L * 1000;
   public static final int DEFAULT_MAX_BYTES_STREAMING = 128 * 1024;
   public static final String DEFAULT_LIBRARY_URL = "//cdn.jsdelivr.net/npm/sockjs-client@1/dist/sockjs.min.js";
+  public static final int DEFAULT_PENDING_WRITES_MAX_SIZE = -1;
+  public static final PendingWritesOverflowPolicy DEFAULT_PENDING_WRITES_OVERFLOW_POLICY = PendingWritesOverflowPolicy.CLOSE;
 
   private long sessionTimeout;
   private boolean insertJSESSIONID;
   private long heartbeatInterval;
   private int maxBytesStreaming;
   private String libraryURL;
+  private int pendingWritesMaxSize;
+  private PendingWritesOverflowPolicy pendingWritesOverflowPolicy;
   private Set<String> disabledTransports = new HashSet<>();
 
   public SockJSHandlerOptions(SockJSHandlerOptions other) {
@@ -54,6 +58,8 @@ public class SockJSHandlerOptions {
     this.heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
     this.maxBytesStreaming = DEFAULT_MAX_BYTES_STREAMING;
     this.libraryURL = DEFAULT_LIBRARY_URL;
+    this.pendingWritesMaxSize = DEFAULT_PENDING_WRITES_MAX_SIZE;
+    this.pendingWritesOverflowPolicy = DEFAULT_PENDING_WRITES_OVERFLOW_POLICY;
   }
 
   public SockJSHandlerOptions(JsonObject json) {
@@ -62,6 +68,9 @@ public class SockJSHandlerOptions {
     this.heartbeatInterval = json.getLong("heartbeatInterval", DEFAULT_HEARTBEAT_INTERVAL);
     this.maxBytesStreaming = json.getInteger("maxBytesStreaming", DEFAULT_MAX_BYTES_STREAMING);
     this.libraryURL = json.getString("libraryURL", DEFAULT_LIBRARY_URL);
+    this.pendingWritesMaxSize = json.getInteger("pendingWritesMaxSize", DEFAULT_PENDING_WRITES_MAX_SIZE);
+    this.pendingWritesOverflowPolicy = PendingWritesOverflowPolicy.valueOf(
+      json.getString("pendingWritesOverflowPolicy", DEFAULT_PENDING_WRITES_OVERFLOW_POLICY.name()));
     JsonArray arr = json.getJsonArray("disabledTransports");
     if (arr != null) {
       for (Object str : arr) {
@@ -129,6 +138,44 @@ public class SockJSHandlerOptions {
     return this;
   }
 
+  public int getPendingWritesMaxSize() {
+    return pendingWritesMaxSize;
+  }
+
+  /**
+   * Set the maximum number of bytes of the messages written to a session and not yet sent to the client. When a write
+   * exceeds it, the {@link #setPendingWritesOverflowPolicy(PendingWritesOverflowPolicy) overflow policy} applies and
+   * {@link io.vertx.core.streams.WriteStream#writeQueueFull()} returns {@code true} as soon as it is reached.
+   * <p>
+   * A value {@code <= 0} means no limit, this is the default.
+   *
+   * @param pendingWritesMaxSize  the maximum size, in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setPendingWritesMaxSize(int pendingWritesMaxSize) {
+    this.pendingWritesMaxSize = pendingWritesMaxSize;
+    return this;
+  }
+
+  public PendingWritesOverflowPolicy getPendingWritesOverflowPolicy() {
+    return pendingWritesOverflowPolicy;
+  }
+
+  /**
+   * Set what a session does when its pending writes exceed {@link #getPendingWritesMaxSize()}, it is closed by
+   * default.
+   *
+   * @param pendingWritesOverflowPolicy  the policy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SockJSHandlerOptions setPendingWritesOverflowPolicy(PendingWritesOverflowPolicy pendingWritesOverflowPolicy) {
+    if (pendingWritesOverflowPolicy == null) {
+      throw new IllegalArgumentException("pendingWritesOverflowPolicy must not be null");
+    }
+    this.pendingWritesOverflowPolicy = pendingWritesOverflowPolicy;
+    return this;
+  }
+
   public SockJSHandlerOptions addDisabledTransport(String subProtocol) {
     disabledTransports.add(subProtocol);
     return this;
@@ -81,9 +81,9 @@ class BaseTransport {
     this.options = options;
   }
 
-  protected SockJSSession getSession(RoutingContext rc, long timeout, long heartbeatInterval, String sessionID,
+  protected SockJSSession getSession(RoutingContext rc, long timeout, String sessionID,
                                      Handler<SockJSSocket> sockHandler) {
-    SockJSSession session = sessions.computeIfAbsent(sessionID, s -> new SockJSSession(vertx, sessions, rc, s, timeout, heartbeatInterval, sockHandler));
+    SockJSSession session = sessions.computeIfAbsent(sessionID, s -> new SockJSSession(vertx, sessions, rc, s, timeout, options, sockHandler));
     return session;
   }
 
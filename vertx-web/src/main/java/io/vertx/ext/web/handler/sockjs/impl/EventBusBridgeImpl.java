@@ -41,21 +41,21 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.auth.User;
-import io.vertx.ext.auth.authorization.Authorization;
 import io.vertx.ext.auth.authorization.AuthorizationProvider;
-import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
 import io.vertx.ext.bridge.BridgeEventType;
-import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.sockjs.*;
+import io.vertx.ext.web.handler.sockjs.impl.PermittedMatcher.Match;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static io.vertx.core.buffer.Buffer.buffer;
 
@@ -67,8 +67,8 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   private static final Logger log = LoggerFactory.getLogger(EventBusBridgeImpl.class);
 
   private final Map<SockJSSocket, SockInfo> sockInfos = new HashMap<>();
-  private final List<PermittedOptions> inboundPermitted;
-  private final List<PermittedOptions> outboundPermitted;
+  private final PermittedMatcher inboundPermitted;
+  private final PermittedMatcher outboundPermitted;
   private final int maxAddressLength;
   private final int maxHandlersPerSocket;
   private final long pingTimeout;
@@ -76,7 +76,9 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   private final Vertx vertx;
   private final EventBus eb;
   private final Map<String, Message> messagesAwaitingReply = new HashMap<>();
-  private final Map<String, Pattern> compiledREs = new HashMap<>();
+  // a single consumer per context and address delivers the messages to all the sockets of the context registered on
+  // it, the map of a context is only accessed from that context
+  private final ConcurrentMap<Context, Map<String, Subscription>> subscriptions = new ConcurrentHashMap<>();
   private final Handler<BridgeEvent> bridgeEventHandler;
   private final AuthorizationProvider authzProvider;
 
@@ -84,8 +86,8 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     this.vertx = vertx;
     this.eb = vertx.eventBus();
     this.authzProvider = authzProvider;
-    this.inboundPermitted = options.getInboundPermitteds() == null ? new ArrayList<>() : options.getInboundPermitteds();
-    this.outboundPermitted = options.getOutboundPermitteds() == null ? new ArrayList<>() : options.getOutboundPermitteds();
+    this.inboundPermitted = new PermittedMatcher(options.getInboundPermitteds() == null ? new ArrayList<>() : options.getInboundPermitteds());
+    this.outboundPermitted = new PermittedMatcher(options.getOutboundPermitteds() == null ? new ArrayList<>() : options.getOutboundPermitteds());
     this.maxAddressLength = options.getMaxAddressLength();
     this.maxHandlersPerSocket = options.getMaxHandlersPerSocket();
     this.pingTimeout = options.getPingTimeout();
@@ -93,19 +95,19 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     this.bridgeEventHandler = bridgeEventHandler;
   }
 
-  private void handleSocketClosed(SockJSSocket sock, Map<String, MessageConsumer> registrations) {
+  private void handleSocketClosed(SockJSSocket sock, Map<String, Subscriber> registrations) {
     // On close unregister any handlers that haven't been unregistered
     registrations.forEach((key, value) -> {
       value.unregister();
       checkCallHook(() -> new BridgeEventImpl(BridgeEventType.UNREGISTER,
-        new JsonObject().put("type", "unregister").put("address", value.address()), sock), null, null);
+        new JsonObject().put("type", "unregister").put("address", key), sock), null, null);
     });
 
     SockInfo info = sockInfos.remove(sock);
     if (info != null) {
       PingInfo pingInfo = info.pingInfo;
       if (pingInfo != null) {
-        vertx.cancelTimer(pingInfo.timerID);
+        pingInfo.timer.cancel();
       }
     }
 
@@ -113,7 +115,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       null, null);
   }
 
-  private void handleSocketData(SockJSSocket sock, Buffer data, Map<String, MessageConsumer> registrations) {
+  private void handleSocketData(SockJSSocket sock, Buffer data, Map<String, Subscriber> registrations) {
     JsonObject msg;
 
     try {
@@ -208,7 +210,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     }
   }
 
-  private void internalHandleRegister(SockJSSocket sock, JsonObject rawMsg, Map<String, MessageConsumer> registrations) {
+  private void internalHandleRegister(SockJSSocket sock, JsonObject rawMsg, Map<String, Subscriber> registrations) {
     final SockInfo info = sockInfos.get(sock);
     if (!checkMaxHandlers(sock, info)) {
       return;
@@ -227,38 +229,8 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
         }
         Match match = checkMatches(false, address, null);
         if (match.doesMatch) {
-          Handler<Message<Object>> handler = msg -> {
-            Match curMatch = checkMatches(false, address, msg.body());
-            if (curMatch.doesMatch) {
-              if (curMatch.requiredAuthority != null) {
-                authorise(curMatch, sock.webUser(), res -> {
-                  if (res.succeeded()) {
-                    if (res.result()) {
-                      checkAddAccceptedReplyAddress(msg);
-                      deliverMessage(sock, address, msg);
-                    } else {
-                      if (debug) {
-                        log.debug("Outbound message for address " + address + " rejected because auth is required and socket is not authed");
-                      }
-                    }
-                  } else {
-                    log.error(res.cause());
-                  }
-                });
-
-              } else {
-                checkAddAccceptedReplyAddress(msg);
-                deliverMessage(sock, address, msg);
-              }
-            } else {
-              // outbound match failed
-              if (debug) {
-                log.debug("Outbound message for address " + address + " rejected because there is no inbound match");
-              }
-            }
-          };
-          MessageConsumer reg = eb.consumer(address).handler(handler);
-          registrations.put(address, reg);
+          Subscriber subscriber = subscription(address).add(sock);
+          subscriber.previous = registrations.put(address, subscriber);
           info.handlerCount++;
           // Notify registration completed
           checkCallHook(() -> new BridgeEventImpl(BridgeEventType.REGISTERED, rawMsg, sock), null, null);
@@ -272,7 +244,17 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       }, () -> replyError(sock, "rejected"));
   }
 
-  private void internalHandleUnregister(SockJSSocket sock, JsonObject rawMsg, Map<String, MessageConsumer> registrations) {
+  /**
+   * @return the subscription of the current context to the address, the messages are delivered on this context like
+   * with a consumer registered by the socket itself
+   */
+  private Subscription subscription(String address) {
+    final Context context = vertx.getOrCreateContext();
+    return subscriptions.computeIfAbsent(context, ctx -> new HashMap<>())
+      .computeIfAbsent(address, addr -> new Subscription(context, addr));
+  }
+
+  private void internalHandleUnregister(SockJSSocket sock, JsonObject rawMsg, Map<String, Subscriber> registrations) {
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.UNREGISTER, rawMsg, sock),
       () -> {
         String address = rawMsg.getString("address");
@@ -282,11 +264,10 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
         }
         Match match = checkMatches(false, address, null);
         if (match.doesMatch) {
-          MessageConsumer reg = registrations.remove(address);
+          Subscriber reg = registrations.remove(address);
           if (reg != null) {
-            reg.unregister();
             SockInfo info = sockInfos.get(sock);
-            info.handlerCount--;
+            info.handlerCount -= reg.unregister();
           }
         } else {
           if (log.isDebugEnabled()) {
@@ -313,14 +294,14 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   public void handle(final SockJSSocket sock) {
     checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_CREATED, null, sock),
       () -> {
-        Map<String, MessageConsumer> registrations = new HashMap<>();
+        Map<String, Subscriber> registrations = new HashMap<>();
 
         sock.endHandler(v -> handleSocketClosed(sock, registrations));
         sock.handler(data -> handleSocketData(sock, data, registrations));
 
         // Start a checker to check for pings
         PingInfo pingInfo = new PingInfo();
-        pingInfo.timerID = vertx.setPeriodic(pingTimeout, id -> {
+        pingInfo.timer = TimerWheel.get(vertx, vertx.getOrCreateContext()).periodic(pingTimeout, () -> {
           if (System.currentTimeMillis() - pingInfo.lastPing >= pingTimeout) {
             // Trigger an event to allow custom behavior before disconnecting client.
             checkCallHook(() -> new BridgeEventImpl(BridgeEventType.SOCKET_IDLE, null, sock),
@@ -352,6 +333,30 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
   }
 
   private void deliverMessage(SockJSSocket sock, String address, Message message) {
+    JsonObject envelope = envelope(address, message);
+    checkCallHook(() -> new BridgeEventImpl(BridgeEventType.RECEIVE, envelope, sock),
+      () -> sock.write(buffer(envelope.encode())),
+      () -> log.debug("outbound message rejected by bridge event handler"));
+  }
+
+  private void deliverMessage(SockJSSocket sock, Delivery delivery) {
+    if (!delivery.replyAccepted) {
+      delivery.replyAccepted = true;
+      checkAddAccceptedReplyAddress(delivery.message);
+    }
+    if (bridgeEventHandler == null) {
+      // the envelope is encoded once and the same buffer is written to all the sockets
+      sock.write(delivery.encoded());
+    } else {
+      // the bridge event handler can modify the envelope, each socket gets its own copy
+      JsonObject envelope = delivery.envelope().copy();
+      checkCallHook(() -> new BridgeEventImpl(BridgeEventType.RECEIVE, envelope, sock),
+        () -> sock.write(buffer(envelope.encode())),
+        () -> log.debug("outbound message rejected by bridge event handler"));
+    }
+  }
+
+  private static JsonObject envelope(String address, Message message) {
     JsonObject envelope = new JsonObject().put("type", "rec").put("address", address).put("body", message.body());
     if (message.replyAddress() != null) {
       envelope.put("replyAddress", message.replyAddress());
@@ -368,9 +373,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
       }
       envelope.put("headers", headersCopy);
     }
-    checkCallHook(() -> new BridgeEventImpl(BridgeEventType.RECEIVE, envelope, sock),
-      () -> sock.write(buffer(envelope.encode())),
-      () -> log.debug("outbound message rejected by bridge event handler"));
+    return envelope;
   }
 
   private void doSendOrPub(boolean send, SockJSSocket sock, String address,
@@ -392,7 +395,7 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     final Message awaitingReply = messagesAwaitingReply.remove(address);
     Match curMatch;
     if (awaitingReply != null) {
-      curMatch = new Match(true);
+      curMatch = PermittedMatcher.MATCH;
     } else {
       curMatch = checkMatches(true, address, body);
     }
@@ -532,101 +535,221 @@ public class EventBusBridgeImpl implements Handler<SockJSSocket> {
     });
   }
 
-  /*
-  Empty inboundPermitted means reject everything - this is the default.
-  If at least one match is supplied and all the fields of any match match then the message inboundPermitted,
-  this means that specifying one match with a JSON empty object means everything is accepted
-   */
   private Match checkMatches(boolean inbound, String address, Object body) {
+    return (inbound ? inboundPermitted : outboundPermitted).matches(address, body);
+  }
 
-    List<PermittedOptions> matches = inbound ? inboundPermitted : outboundPermitted;
+  private static void replyError(SockJSSocket sock, String err) {
+    JsonObject envelope = new JsonObject().put("type", "err").put("body", err);
+    sock.write(buffer(envelope.encode()));
+  }
 
-    for (PermittedOptions matchHolder : matches) {
-      String matchAddress = matchHolder.getAddress();
-      String matchRegex;
-      if (matchAddress == null) {
-        matchRegex = matchHolder.getAddressRegex();
-      } else {
-        matchRegex = null;
-      }
+  private static final class PingInfo {
+    long lastPing;
+    TimerWheel.Timeout timer;
+  }
 
-      boolean addressOK;
-      if (matchAddress == null) {
-        addressOK = matchRegex == null || regexMatches(matchRegex, address);
-      } else {
-        addressOK = matchAddress.equals(address);
-      }
+  private static final class SockInfo {
+    int handlerCount;
+    PingInfo pingInfo;
+  }
 
-      if (addressOK) {
-        boolean matched = structureMatches(matchHolder.getMatch(), body);
-        if (matched) {
-          String requiredAuthority = matchHolder.getRequiredAuthority();
-          return new Match(true, requiredAuthority);
-        }
-      }
+  /**
+   * The sockets of a context registered on an address.
+   */
+  private final class Subscription {
+
+    private final Context context;
+    private final String address;
+    private final MessageConsumer<Object> consumer;
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+    // the subscribers at the time of the last message, rebuilt after a socket registers or unregisters
+    private Subscriber[] snapshot;
+    // the subscriber getting the next point-to-point message
+    private int next;
+
+    Subscription(Context context, String address) {
+      this.context = context;
+      this.address = address;
+      this.consumer = eb.consumer(address);
+      consumer.handler(this::handle);
     }
-    return new Match(false);
-  }
 
-  private boolean regexMatches(String matchRegex, String address) {
-    Pattern pattern = compiledREs.computeIfAbsent(matchRegex, Pattern::compile);
-    Matcher m = pattern.matcher(address);
-    return m.matches();
-  }
+    Subscriber add(SockJSSocket sock) {
+      Subscriber subscriber = new Subscriber(this, sock);
+      subscribers.add(subscriber);
+      snapshot = null;
+      return subscriber;
+    }
 
-  private static void replyError(SockJSSocket sock, String err) {
-    JsonObject envelope = new JsonObject().put("type", "err").put("body", err);
-    sock.write(buffer(envelope.encode()));
-  }
+    void remove(Subscriber subscriber) {
+      if (Vertx.currentContext() != context) {
+        // the subscriber is not registered anymore, it does not get the messages delivered in the meantime
+        context.runOnContext(v -> remove(subscriber));
+        return;
+      }
+      subscribers.remove(subscriber);
+      snapshot = null;
+      if (subscribers.isEmpty()) {
+        consumer.unregister();
+        Map<String, Subscription> byAddress = subscriptions.get(context);
+        if (byAddress != null && byAddress.remove(address, this) && byAddress.isEmpty()) {
+          subscriptions.remove(context, byAddress);
+        }
+      }
+    }
 
-  private static boolean structureMatches(JsonObject match, Object bodyObject) {
-    if (match == null || bodyObject == null) return true;
-
-    // Can send message other than JSON too - in which case we can't do deep matching on structure of message
-    if (bodyObject instanceof JsonObject) {
-      JsonObject body = (JsonObject) bodyObject;
-      for (String fieldName : match.fieldNames()) {
-        Object mv = match.getValue(fieldName);
-        Object bv = body.getValue(fieldName);
-        // Support deep matching
-        if (mv instanceof JsonObject) {
-          if (!structureMatches((JsonObject) mv, bv)) {
-            return false;
+    private void handle(Message<Object> msg) {
+      // the outbound match only depends on the message, it is the same for all the sockets
+      Match curMatch = checkMatches(false, address, msg.body());
+      if (!curMatch.doesMatch) {
+        // outbound match failed
+        if (log.isDebugEnabled()) {
+          log.debug("Outbound message for address " + address + " rejected because there is no inbound match");
+        }
+        return;
+      }
+      Subscriber[] current = snapshot;
+      if (current == null) {
+        current = snapshot = subscribers.toArray(new Subscriber[0]);
+      }
+      Delivery delivery = new Delivery(address, msg);
+      if (msg.isSend()) {
+        // a point-to-point message goes to a single socket, like with a consumer per registration
+        for (int i = 0; i < current.length; i++) {
+          Subscriber subscriber = current[next++ % current.length];
+          if (subscriber.registered) {
+            deliver(subscriber, curMatch, delivery);
+            break;
           }
-        } else if (!match.getValue(fieldName).equals(body.getValue(fieldName))) {
-          return false;
+        }
+        if (next >= current.length) {
+          next = 0;
+        }
+        return;
+      }
+      for (Subscriber subscriber : current) {
+        // a socket can be closed by the delivery to a previous one
+        if (subscriber.registered) {
+          deliver(subscriber, curMatch, delivery);
         }
       }
-      return true;
     }
 
-    return false;
+    private void deliver(Subscriber subscriber, Match curMatch, Delivery delivery) {
+      if (curMatch.requiredAuthority == null) {
+        deliverMessage(subscriber.sock, delivery);
+      } else {
+        subscriber.authorise(curMatch, delivery);
+      }
+    }
   }
 
-  private static class Match {
-    public final boolean doesMatch;
-    public final Authorization requiredAuthority;
+  /**
+   * A socket registered on an address, a socket registered several times on the same address gets the messages
+   * several times.
+   */
+  private final class Subscriber {
+
+    private final Subscription subscription;
+    private final SockJSSocket sock;
+    // the outcome of the authorization of the socket user, by authority
+    private Map<String, Boolean> authorizations;
+    private boolean registered = true;
+    // the previous registration of the socket on the same address
+    Subscriber previous;
+
+    Subscriber(Subscription subscription, SockJSSocket sock) {
+      this.subscription = subscription;
+      this.sock = sock;
+    }
+
+    /**
+     * Unregisters the socket, including its previous registrations on the same address.
+     *
+     * @return the number of registrations removed
+     */
+    int unregister() {
+      int count = 0;
+      for (Subscriber subscriber = this; subscriber != null; subscriber = subscriber.previous) {
+        if (subscriber.registered) {
+          subscriber.registered = false;
+          subscriber.subscription.remove(subscriber);
+          count++;
+        }
+      }
+      return count;
+    }
 
-    Match(boolean doesMatch, String requiredAuthority) {
-      this.doesMatch = doesMatch;
-      this.requiredAuthority = requiredAuthority == null ? null : PermissionBasedAuthorization.create(requiredAuthority);
+    void authorise(Match curMatch, Delivery delivery) {
+      Boolean authorized = authorizations == null ? null : authorizations.get(curMatch.authority);
+      if (authorized != null) {
+        deliverIfAuthorized(authorized, delivery);
+        return;
+      }
+      User webUser = sock.webUser();
+      if (webUser == null) {
+        cacheAuthorization(curMatch, false);
+        deliverIfAuthorized(false, delivery);
+        return;
+      }
+      EventBusBridgeImpl.this.authorise(curMatch, webUser, res -> {
+        if (res.succeeded()) {
+          cacheAuthorization(curMatch, res.result());
+          deliverIfAuthorized(res.result(), delivery);
+        } else {
+          log.error(res.cause());
+        }
+      });
     }
 
-    Match(boolean doesMatch) {
-      this.doesMatch = doesMatch;
-      this.requiredAuthority = null;
+    private void cacheAuthorization(Match curMatch, boolean authorized) {
+      if (authorizations == null) {
+        authorizations = new HashMap<>();
+      }
+      authorizations.put(curMatch.authority, authorized);
     }
 
+    private void deliverIfAuthorized(boolean authorized, Delivery delivery) {
+      if (authorized) {
+        if (registered) {
+          deliverMessage(sock, delivery);
+        }
+      } else if (log.isDebugEnabled()) {
+        log.debug("Outbound message for address " + subscription.address + " rejected because auth is required and socket is not authed");
+      }
+    }
   }
 
-  private static final class PingInfo {
-    long lastPing;
-    long timerID;
-  }
+  /**
+   * A message delivered to the sockets registered on an address, the envelope is built and encoded at most once.
+   */
+  private static final class Delivery {
 
-  private static final class SockInfo {
-    int handlerCount;
-    PingInfo pingInfo;
+    private final String address;
+    private final Message message;
+    private JsonObject envelope;
+    private Buffer encoded;
+    boolean replyAccepted;
+
+    Delivery(String address, Message message) {
+      this.address = address;
+      this.message = message;
+    }
+
+    JsonObject envelope() {
+      if (envelope == null) {
+        envelope = EventBusBridgeImpl.envelope(address, message);
+      }
+      return envelope;
+    }
+
+    Buffer encoded() {
+      if (encoded == null) {
+        encoded = buffer(envelope().encode());
+      }
+      return encoded;
+    }
   }
 
 
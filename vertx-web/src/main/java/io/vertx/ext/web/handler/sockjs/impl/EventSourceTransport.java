@@ -65,7 +65,7 @@ class EventSourceTransport extends BaseTransport {
     router.getWithRegex(eventSourceRE).handler(rc -> {
       if (log.isTraceEnabled()) log.trace("EventSource transport, get: " + rc.request().uri());
       String sessionID = rc.request().getParam("param0");
-      SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
+      SockJSSession session = getSession(rc, options.getSessionTimeout(), sessionID, sockHandler);
       HttpServerRequest req = rc.request();
       session.register(req, new EventSourceListener(options.getMaxBytesStreaming(), rc, session));
     });
@@ -85,7 +85,7 @@ class EventSourceTransport extends BaseTransport {
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("EventSource, sending frame");
       if (!headersWritten) {
         // event stream data is always UTF8
@@ -97,10 +97,10 @@ class EventSourceTransport extends BaseTransport {
         rc.response().setChunked(true).write("\r\n");
         headersWritten = true;
       }
-      String sb = "data: " +
-        body +
-        "\r\n\r\n";
-      Buffer buff = buffer(sb);
+      Buffer buff = buffer(body.length() + 10)
+        .appendString("data: ")
+        .appendBuffer(body)
+        .appendString("\r\n\r\n");
       rc.response().write(buff, handler);
       bytesSent += buff.length();
       if (bytesSent >= maxBytesStreaming) {
@@ -111,7 +111,7 @@ class HtmlFileTransport extends BaseTransport {
 
       HttpServerRequest req = rc.request();
       String sessionID = req.params().get("param0");
-      SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
+      SockJSSession session = getSession(rc, options.getSessionTimeout(), sessionID, sockHandler);
       session.register(req, new HtmlFileListener(options.getMaxBytesStreaming(), rc, callback, session));
     });
   }
@@ -132,7 +132,7 @@ class HtmlFileTransport extends BaseTransport {
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer frame, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("HtmlFile, sending frame");
       if (!headersWritten) {
         String htmlFile = HTML_FILE_TEMPLATE.replace("{{ callback }}", callback);
@@ -143,7 +143,7 @@ class HtmlFileTransport extends BaseTransport {
         rc.response().write(htmlFile);
         headersWritten = true;
       }
-      body = escapeForJavaScript(body);
+      String body = escapeForJavaScript(frame.toString());
       String sb = "<script>\np(\"" +
         body +
         "\");\n</script>\r\n";
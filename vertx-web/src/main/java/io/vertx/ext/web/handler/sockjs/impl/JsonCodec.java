@@ -33,15 +33,14 @@
 package io.vertx.ext.web.handler.sockjs.impl;
 
 import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.io.CharTypes;
-import io.vertx.core.json.EncodeException;
+import io.vertx.core.buffer.Buffer;
 
-import java.io.IOException;
-import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -68,53 +67,139 @@ public class JsonCodec {
 
   // This code was adapted from http://wiki.fasterxml.com/JacksonSampleQuoteChars
 
-  private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
-  private static final int[] ESCAPE_CODES = CharTypes.get7BitOutputEscapes();
+  private static final byte[] HEX_CHARS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+  private static final char REPLACEMENT_CHAR = '\ufffd';
 
-  private static void writeUnicodeEscape(JsonGenerator gen, char c) throws IOException {
-    gen.writeRaw('\\');
-    gen.writeRaw('u');
-    gen.writeRaw(HEX_CHARS[(c >> 12) & 0xF]);
-    gen.writeRaw(HEX_CHARS[(c >> 8) & 0xF]);
-    gen.writeRaw(HEX_CHARS[(c >> 4) & 0xF]);
-    gen.writeRaw(HEX_CHARS[c & 0xF]);
+  // the escape sequence of each US-ASCII character, null when the character is written as is
+  private static final byte[][] ESCAPES = new byte[128][];
+
+  static {
+    int[] escapeCodes = CharTypes.get7BitOutputEscapes();
+    for (int c = 0; c < escapeCodes.length; c++) {
+      int code = escapeCodes[c];
+      if (code == -1) {
+        // generic escaping
+        ESCAPES[c] = unicodeEscape((char) c);
+      } else if (code != 0) {
+        // short escaping (\n \t ...)
+        ESCAPES[c] = new byte[]{'\\', (byte) code};
+      }
+    }
   }
 
-  private static void writeShortEscape(JsonGenerator gen, char c) throws IOException {
-    gen.writeRaw('\\');
-    gen.writeRaw(c);
+  private static byte[] unicodeEscape(char c) {
+    return new byte[]{
+      '\\', 'u',
+      HEX_CHARS[(c >> 12) & 0xF],
+      HEX_CHARS[(c >> 8) & 0xF],
+      HEX_CHARS[(c >> 4) & 0xF],
+      HEX_CHARS[c & 0xF]
+    };
   }
 
-  public static String encode(String[] messages) throws EncodeException {
-    StringWriter sw = new StringWriter();
-    try (JsonGenerator gen = factory.createGenerator(sw)) {
-      gen.writeStartArray();
-      boolean first = true;
-      for (String message : messages) {
-        if (first) {
-          first = false;
-        } else {
-          gen.writeRaw(',');
-        }
-        gen.writeRaw('"');
-        for (char c : message.toCharArray()) {
-          if (c >= 0x80) writeUnicodeEscape(gen, c); // use generic escaping for all non US-ASCII characters
-          else {
-            // use escape table for first 128 characters
-            int code = (c < ESCAPE_CODES.length ? ESCAPE_CODES[c] : 0);
-            if (code == 0) gen.writeRaw(c); // no escaping
-            else if (code == -1) writeUnicodeEscape(gen, c); // generic escaping
-            else writeShortEscape(gen, (char) code); // short escaping (\n \t ...)
-          }
+  private static void appendUnicodeEscape(Buffer out, char c) {
+    out
+      .appendByte((byte) '\\')
+      .appendByte((byte) 'u')
+      .appendByte(HEX_CHARS[(c >> 12) & 0xF])
+      .appendByte(HEX_CHARS[(c >> 8) & 0xF])
+      .appendByte(HEX_CHARS[(c >> 4) & 0xF])
+      .appendByte(HEX_CHARS[c & 0xF]);
+  }
+
+  /**
+   * Appends the messages to the buffer as a JSON array of strings. The messages are UTF-8 text, every non US-ASCII
+   * character is unicode escaped so the array is written as US-ASCII.
+   */
+  public static void encode(Collection<Buffer> messages, Buffer out) {
+    out.appendByte((byte) '[');
+    boolean first = true;
+    for (Buffer message : messages) {
+      if (first) {
+        first = false;
+      } else {
+        out.appendByte((byte) ',');
+      }
+      out.appendByte((byte) '"');
+      appendEscaped(message, out);
+      out.appendByte((byte) '"');
+    }
+    out.appendByte((byte) ']');
+  }
+
+  private static void appendEscaped(Buffer message, Buffer out) {
+    final int len = message.length();
+    // the start of the characters not yet written, written at once when an escape is met
+    int run = 0;
+    int i = 0;
+    while (i < len) {
+      final int b = message.getByte(i) & 0xFF;
+      if (b < 0x80) {
+        byte[] escape = ESCAPES[b];
+        if (escape != null) {
+          out.appendBuffer(message, run, i - run).appendBytes(escape);
+          run = i + 1;
         }
-        gen.writeRaw('"');
+        i++;
+        continue;
       }
-      gen.writeEndArray();
-      gen.close();
-      return sw.toString();
-    } catch (Exception e) {
-      throw new EncodeException("Failed to encode as JSON", e);
+      // use generic escaping for all non US-ASCII characters
+      out.appendBuffer(message, run, i - run);
+      i = appendEscapedCodePoint(message, i, b, out);
+      run = i;
+    }
+    out.appendBuffer(message, run, len - run);
+  }
+
+  /**
+   * Decodes the UTF-8 sequence starting at {@code pos} and appends it unicode escaped, malformed bytes are replaced
+   * by {@code U+FFFD}.
+   *
+   * @return the position after the sequence
+   */
+  private static int appendEscapedCodePoint(Buffer message, int pos, int b, Buffer out) {
+    final int extra;
+    final int min;
+    int cp;
+    if ((b & 0xE0) == 0xC0) {
+      extra = 1;
+      min = 0x80;
+      cp = b & 0x1F;
+    } else if ((b & 0xF0) == 0xE0) {
+      extra = 2;
+      min = 0x800;
+      cp = b & 0x0F;
+    } else if ((b & 0xF8) == 0xF0) {
+      extra = 3;
+      min = 0x10000;
+      cp = b & 0x07;
+    } else {
+      appendUnicodeEscape(out, REPLACEMENT_CHAR);
+      return pos + 1;
+    }
+    if (pos + extra >= message.length()) {
+      appendUnicodeEscape(out, REPLACEMENT_CHAR);
+      return pos + 1;
+    }
+    for (int k = 1; k <= extra; k++) {
+      final int c = message.getByte(pos + k) & 0xFF;
+      if ((c & 0xC0) != 0x80) {
+        appendUnicodeEscape(out, REPLACEMENT_CHAR);
+        return pos + 1;
+      }
+      cp = (cp << 6) | (c & 0x3F);
+    }
+    if (cp < min || cp > Character.MAX_CODE_POINT || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) {
+      appendUnicodeEscape(out, REPLACEMENT_CHAR);
+      return pos + 1;
+    }
+    if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+      appendUnicodeEscape(out, Character.highSurrogate(cp));
+      appendUnicodeEscape(out, Character.lowSurrogate(cp));
+    } else {
+      appendUnicodeEscape(out, (char) cp);
     }
+    return pos + extra + 1;
   }
 
   public static List<String> decodeValues(String messages) {
@@ -35,6 +35,7 @@ package io.vertx.ext.web.handler.sockjs.impl;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.impl.logging.Logger;
@@ -85,7 +86,7 @@ class JsonPTransport extends BaseTransport {
 
       HttpServerRequest req = rc.request();
       String sessionID = req.params().get("param0");
-      SockJSSession session = getSession(rc, options.getSessionTimeout(), options.getHeartbeatInterval(), sessionID, sockHandler);
+      SockJSSession session = getSession(rc, options.getSessionTimeout(), sessionID, sockHandler);
       session.register(req, new JsonPListener(rc, session, callback));
     });
 
@@ -155,7 +156,7 @@ class JsonPTransport extends BaseTransport {
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer frame, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("JsonP, sending frame");
 
       if (!headersWritten) {
@@ -169,7 +170,7 @@ class JsonPTransport extends BaseTransport {
         headersWritten = true;
       }
 
-      body = escapeForJavaScript(body);
+      String body = escapeForJavaScript(frame.toString());
 
       // prepend comment to avoid SWF exploit https://github.com/sockjs/sockjs-node/issues/163
       String sb = "/**/" + callback + "(\"" +
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.authorization.Authorization;
+import io.vertx.ext.auth.authorization.PermissionBasedAuthorization;
+import io.vertx.ext.bridge.PermittedOptions;
+import io.vertx.ext.web.common.impl.ConcurrentLRUCache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches the messages flowing through the bridge against a list of {@link PermittedOptions}.
+ * <p>
+ * The options are compiled once: exact addresses are indexed, regular expressions are compiled and the required
+ * authorities are created. The options that can permit an address are then resolved once per address, when none
+ * of them matches the structure of the body the decision does not depend on the message at all.
+ * <p>
+ * Empty options means reject everything - this is the default. If all the fields of any of the options match the
+ * message is permitted, this means that specifying one option with a JSON empty object means everything is accepted.
+ * <p>
+ * This class is thread-safe
+ */
+final class PermittedMatcher {
+
+  static final Match NO_MATCH = new Match(false, null);
+  static final Match MATCH = new Match(true, null);
+
+  // addresses are chosen by the clients, the cache must be bounded
+  private static final int MAX_CACHED_ADDRESSES = 4096;
+
+  private static final Rule[] NO_RULES = new Rule[0];
+
+  private final Map<String, List<Rule>> exact = new HashMap<>();
+  // the options without an address, in the order they were declared
+  private final Rule[] others;
+  private final Map<String, Rule[]> candidates = new ConcurrentLRUCache<>(MAX_CACHED_ADDRESSES);
+
+  PermittedMatcher(List<PermittedOptions> permitted) {
+    List<Rule> others = new ArrayList<>();
+    for (int i = 0; i < permitted.size(); i++) {
+      PermittedOptions options = permitted.get(i);
+      Rule rule = new Rule(i, options);
+      if (options.getAddress() != null) {
+        exact.computeIfAbsent(options.getAddress(), k -> new ArrayList<>()).add(rule);
+      } else {
+        others.add(rule);
+      }
+    }
+    this.others = others.toArray(NO_RULES);
+  }
+
+  /**
+   * @param address  the address of the message
+   * @param body  the body of the message, {@code null} to only match the address
+   * @return the match, {@link #NO_MATCH} when the message is not permitted
+   */
+  Match matches(String address, Object body) {
+    Rule[] rules = candidates.get(address);
+    if (rules == null) {
+      rules = candidates(address);
+      candidates.put(address, rules);
+    }
+    for (Rule rule : rules) {
+      if (structureMatches(rule.match, body)) {
+        return rule.result;
+      }
+    }
+    return NO_MATCH;
+  }
+
+  /**
+   * @return the options permitting the address, in the order they were declared
+   */
+  private Rule[] candidates(String address) {
+    List<Rule> rules = new ArrayList<>(exact.getOrDefault(address, new ArrayList<>()));
+    for (Rule rule : others) {
+      if (rule.regex == null || rule.regex.matcher(address).matches()) {
+        rules.add(rule);
+      }
+    }
+    if (rules.isEmpty()) {
+      return NO_RULES;
+    }
+    rules.sort(Comparator.comparingInt(rule -> rule.index));
+    // the options declared after an option permitting any body are never used
+    for (int i = 0; i < rules.size(); i++) {
+      if (rules.get(i).match == null) {
+        return rules.subList(0, i + 1).toArray(NO_RULES);
+      }
+    }
+    return rules.toArray(NO_RULES);
+  }
+
+  private static boolean structureMatches(JsonObject match, Object bodyObject) {
+    if (match == null || bodyObject == null) return true;
+
+    // Can send message other than JSON too - in which case we can't do deep matching on structure of message
+    if (bodyObject instanceof JsonObject) {
+      JsonObject body = (JsonObject) bodyObject;
+      for (String fieldName : match.fieldNames()) {
+        Object mv = match.getValue(fieldName);
+        Object bv = body.getValue(fieldName);
+        // Support deep matching
+        if (mv instanceof JsonObject) {
+          if (!structureMatches((JsonObject) mv, bv)) {
+            return false;
+          }
+        } else if (!mv.equals(bv)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    return false;
+  }
+
+  private static final class Rule {
+
+    final int index;
+    final Pattern regex;
+    final JsonObject match;
+    final Match result;
+
+    Rule(int index, PermittedOptions options) {
+      this.index = index;
+      this.regex = options.getAddress() == null && options.getAddressRegex() != null ?
+        Pattern.compile(options.getAddressRegex()) : null;
+      this.match = options.getMatch() == null ? null : options.getMatch().copy();
+      this.result = new Match(true, options.getRequiredAuthority());
+    }
+  }
+
+  static final class Match {
+
+    final boolean doesMatch;
+    final String authority;
+    final Authorization requiredAuthority;
+
+    private Match(boolean doesMatch, String requiredAuthority) {
+      this.doesMatch = doesMatch;
+      this.authority = requiredAuthority;
+      this.requiredAuthority = requiredAuthority == null ? null : PermissionBasedAuthorization.create(requiredAuthority);
+    }
+  }
+}
@@ -43,11 +43,13 @@ import io.vertx.core.shareddata.LocalMap;
 import io.vertx.core.shareddata.Shareable;
 import io.vertx.core.streams.impl.InboundBuffer;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.sockjs.PendingWritesOverflowPolicy;
+import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 
 import static io.vertx.core.buffer.Buffer.buffer;
@@ -65,9 +67,14 @@ import static io.vertx.core.buffer.Buffer.buffer;
 class SockJSSession extends SockJSSocketBase implements Shareable {
 
   private static final Logger log = LoggerFactory.getLogger(SockJSSession.class);
+  // the ack of the writes without a handler, the queue does not accept null
+  private static final Handler<AsyncResult<Void>> NO_ACK = ar -> {};
   private final LocalMap<String, SockJSSession> sessions;
-  private final Deque<String> pendingWrites = new LinkedList<>();
-  private List<Handler<AsyncResult<Void>>> writeAcks;
+  private final Deque<Buffer> pendingWrites = new ArrayDeque<>();
+  // the acks of the pending writes, in the same order
+  private final Deque<Handler<AsyncResult<Void>>> pendingAcks = new ArrayDeque<>();
+  private final int pendingWritesMaxSize;
+  private final PendingWritesOverflowPolicy overflowPolicy;
   private final Context context;
   private final InboundBuffer<Buffer> pendingReads;
   private TransportListener listener;
@@ -76,9 +83,10 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   private final String id;
   private final long timeout;
   private final Handler<SockJSSocket> sockHandler;
-  private long heartbeatID;
-  private long timeoutTimerID = -1;
-  private int maxQueueSize = 64 * 1024; // Message queue size is measured in *characters* (not bytes)
+  private final TimerWheel timers;
+  private final TimerWheel.Timeout heartbeat;
+  private TimerWheel.Timeout timeoutTimer;
+  private int maxQueueSize = 64 * 1024; // Message queue size is measured in bytes
   private int messagesSize;
   private Handler<Void> drainHandler;
   private Handler<Void> endHandler;
@@ -90,26 +98,28 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   private MultiMap headers;
   private Context transportCtx;
 
-  SockJSSession(Vertx vertx, LocalMap<String, SockJSSession> sessions, RoutingContext rc, long heartbeatInterval,
+  SockJSSession(Vertx vertx, LocalMap<String, SockJSSession> sessions, RoutingContext rc, SockJSHandlerOptions options,
                 Handler<SockJSSocket> sockHandler) {
-    this(vertx, sessions, rc, null, -1, heartbeatInterval, sockHandler);
+    this(vertx, sessions, rc, null, -1, options, sockHandler);
   }
 
-  SockJSSession(Vertx vertx, LocalMap<String, SockJSSession> sessions, RoutingContext rc, String id, long timeout, long heartbeatInterval,
-                Handler<SockJSSocket> sockHandler) {
+  SockJSSession(Vertx vertx, LocalMap<String, SockJSSession> sessions, RoutingContext rc, String id, long timeout,
+                SockJSHandlerOptions options, Handler<SockJSSocket> sockHandler) {
     super(vertx, rc.session(), rc.user());
     this.sessions = sessions;
     this.id = id;
     this.timeout = timeout;
     this.sockHandler = sockHandler;
+    this.pendingWritesMaxSize = options.getPendingWritesMaxSize();
+    this.overflowPolicy = options.getPendingWritesOverflowPolicy();
     context = vertx.getOrCreateContext();
     pendingReads = new InboundBuffer<>(context);
 
     // Start a heartbeat
-
-    heartbeatID = vertx.setPeriodic(heartbeatInterval, tid -> {
+    timers = TimerWheel.get(vertx, context);
+    heartbeat = timers.periodic(options.getHeartbeatInterval(), () -> {
       if (listener != null) {
-        listener.sendFrame("h", null);
+        listener.sendFrame(buffer("h"), null);
       }
     });
   }
@@ -123,14 +133,16 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
         }
         return;
       }
-      String msgStr = buffer.toString();
-      pendingWrites.add(msgStr);
-      messagesSize += msgStr.length();
-      if (handler != null) {
-        if (writeAcks == null) {
-          writeAcks = new ArrayList<>();
+      pendingWrites.add(buffer);
+      pendingAcks.add(handler != null ? handler : NO_ACK);
+      messagesSize += buffer.length();
+      if (pendingWritesMaxSize > 0 && messagesSize > pendingWritesMaxSize) {
+        if (overflowPolicy == PendingWritesOverflowPolicy.CLOSE) {
+          if (log.isDebugEnabled()) log.debug("Closing SockJS session " + id + ", too many pending writes");
+          close();
+          return;
         }
-        writeAcks.add(handler);
+        dropOldestWrites();
       }
       if (listener != null) {
         Context ctx = transportCtx;
@@ -144,6 +156,17 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
     return;
   }
 
+  // the newest write is always kept, even when it exceeds the limit on its own
+  private void dropOldestWrites() {
+    while (messagesSize > pendingWritesMaxSize && pendingWrites.size() > 1) {
+      messagesSize -= pendingWrites.poll().length();
+      Handler<AsyncResult<Void>> ack = pendingAcks.poll();
+      if (ack != NO_ACK) {
+        context.runOnContext(v -> ack.handle(Future.failedFuture(new VertxException("Write dropped, too many pending writes"))));
+      }
+    }
+  }
+
   @Override
   public synchronized SockJSSession handler(Handler<Buffer> handler) {
     pendingReads.handler(handler);
@@ -179,7 +202,7 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   @Override
   public synchronized boolean writeQueueFull() {
-    return messagesSize >= maxQueueSize;
+    return messagesSize >= maxQueueSize || (pendingWritesMaxSize > 0 && messagesSize >= pendingWritesMaxSize);
   }
 
   @Override
@@ -256,16 +279,16 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   }
 
   private void cancelTimer() {
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
+    if (timeoutTimer != null) {
+      timeoutTimer.cancel();
     }
   }
 
   private void setTimer() {
     if (timeout != -1) {
       cancelTimer();
-      timeoutTimerID = vertx.setTimer(timeout, id1 -> {
-        vertx.cancelTimer(heartbeatID);
+      timeoutTimer = timers.schedule(timeout, () -> {
+        heartbeat.cancel();
         if (listener == null) {
           shutdown();
         }
@@ -278,16 +301,27 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   private synchronized void writePendingMessages() {
     if (listener != null) {
-      String json = JsonCodec.encode(pendingWrites.toArray(new String[0]));
+      // room for the quotes and commas of the array and for the transport to end the frame, escaping can need more
+      Buffer frame = Buffer.buffer(messagesSize + 3 * pendingWrites.size() + 16).appendByte((byte) 'a');
+      JsonCodec.encode(pendingWrites, frame);
       pendingWrites.clear();
-      if (writeAcks != null) {
-        List<Handler<AsyncResult<Void>>> acks = this.writeAcks;
-        this.writeAcks = null;
-        listener.sendFrame("a" + json, ar -> {
-          acks.forEach(a -> a.handle(ar));
+      List<Handler<AsyncResult<Void>>> acks = null;
+      for (Handler<AsyncResult<Void>> ack : pendingAcks) {
+        if (ack != NO_ACK) {
+          if (acks == null) {
+            acks = new ArrayList<>();
+          }
+          acks.add(ack);
+        }
+      }
+      pendingAcks.clear();
+      if (acks != null) {
+        List<Handler<AsyncResult<Void>>> handlers = acks;
+        listener.sendFrame(frame, ar -> {
+          handlers.forEach(a -> a.handle(ar));
         });
       } else {
-        listener.sendFrame("a" + json, null);
+        listener.sendFrame(frame, null);
       }
       messagesSize = 0;
       if (drainHandler != null) {
@@ -348,12 +382,8 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   // Yes, I know it's weird but that's the way SockJS likes it.
   void shutdown() {
     super.close(); // We must call this or handlers don't get unregistered and we get a leak
-    if (heartbeatID != -1) {
-      vertx.cancelTimer(heartbeatID);
-    }
-    if (timeoutTimerID != -1) {
-      vertx.cancelTimer(timeoutTimerID);
-    }
+    heartbeat.cancel();
+    cancelTimer();
     if (id != null) {
       // Can be null if websocket session
       sessions.remove(id);
@@ -368,14 +398,15 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
   private void handleClosed() {
     pendingReads.clear();
     pendingWrites.clear();
-    if (writeAcks != null) {
-      writeAcks.forEach(handler -> {
+    messagesSize = 0;
+    pendingAcks.forEach(handler -> {
+      if (handler != NO_ACK) {
         context.runOnContext(v -> {
           handler.handle(Future.failedFuture(ConnectionBase.CLOSED_EXCEPTION));
         });
-      });
-      writeAcks.clear();
-    }
+      }
+    });
+    pendingAcks.clear();
     Handler<Void> handler = endHandler;
     if (handler != null) {
       context.runOnContext(handler::handle);
@@ -422,11 +453,11 @@ class SockJSSession extends SockJSSocketBase implements Shareable {
 
   private void writeClosed(TransportListener lst, int code, String msg) {
     String sb = "c[" + code + ",\"" + msg + "\"]";
-    lst.sendFrame(sb, null);
+    lst.sendFrame(buffer(sb), null);
   }
 
   private synchronized void writeOpen(TransportListener lst) {
-    lst.sendFrame("o", null);
+    lst.sendFrame(buffer("o"), null);
     openWritten = true;
   }
 }
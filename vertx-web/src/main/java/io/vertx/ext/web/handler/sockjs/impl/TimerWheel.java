@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.handler.sockjs.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A hashed wheel of the SockJS timers of a context: session heartbeats and timeouts, bridge ping checks.
+ * <p>
+ * Connections are long lived and each of them needs a few timers that are rarely due. Instead of registering them all
+ * with Vert.x, the timers of a context are kept in the slots of a wheel, and a single Vert.x timer advances the wheel
+ * by one slot every {@link #TICK} ms and runs the due timers. Timers can therefore run up to a tick late. The Vert.x
+ * timer is only set while the wheel has timers.
+ * <p>
+ * Timers run on the context of the wheel. They can be scheduled and cancelled from any thread, the wheel itself is
+ * only accessed from its context.
+ */
+final class TimerWheel {
+
+  private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+  /**
+   * The resolution of the timers, in ms.
+   */
+  static final long TICK = 50;
+
+  // the wheel turns in SLOTS * TICK ms, timers due later wait for as many turns
+  private static final int SLOTS = 512;
+  private static final int MASK = SLOTS - 1;
+
+  private static final String MAP_NAME = "__vertx.sockjs.timers";
+
+  /**
+   * @return the wheel of the given context, shared by the SockJS handlers of the Vert.x instance
+   */
+  static TimerWheel get(Vertx vertx, Context context) {
+    final LocalMap<String, Wheels> map = vertx.sharedData().getLocalMap(MAP_NAME);
+    Wheels wheels = map.get(MAP_NAME);
+    if (wheels == null) {
+      final Wheels created = new Wheels();
+      wheels = map.putIfAbsent(MAP_NAME, created);
+      if (wheels == null) {
+        wheels = created;
+      }
+    }
+    final Wheels shared = wheels;
+    return shared.byContext.computeIfAbsent(context, ctx -> new TimerWheel(vertx, ctx, shared));
+  }
+
+  private final Vertx vertx;
+  private final Context context;
+  private final Wheels wheels;
+  private final List<Timeout>[] slots;
+  private int cursor;
+  // the number of timers in the slots, including the cancelled ones not yet removed
+  private int size;
+  private long tickTimerID = -1;
+  private long lastTick;
+
+  @SuppressWarnings("unchecked")
+  private TimerWheel(Vertx vertx, Context context, Wheels wheels) {
+    this.vertx = vertx;
+    this.context = context;
+    this.wheels = wheels;
+    this.slots = new List[SLOTS];
+    for (int i = 0; i < SLOTS; i++) {
+      slots[i] = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Runs the task once after the delay.
+   */
+  Timeout schedule(long delay, Runnable task) {
+    return add(new Timeout(delay, 0, task));
+  }
+
+  /**
+   * Runs the task every period.
+   */
+  Timeout periodic(long period, Runnable task) {
+    return add(new Timeout(period, period, task));
+  }
+
+  private Timeout add(Timeout timeout) {
+    if (Vertx.currentContext() == context) {
+      insert(timeout, timeout.delay);
+    } else {
+      context.runOnContext(v -> insert(timeout, timeout.delay));
+    }
+    return timeout;
+  }
+
+  private void insert(Timeout timeout, long delay) {
+    if (timeout.cancelled) {
+      return;
+    }
+    if (tickTimerID == -1) {
+      lastTick = System.currentTimeMillis();
+      tickTimerID = vertx.setPeriodic(TICK, id -> tick());
+      // the wheel may have been dropped while it had no timers
+      wheels.byContext.putIfAbsent(context, this);
+    }
+    // the next slot is visited less than a tick from now, timers never run early
+    final long elapsed = Math.max(0, System.currentTimeMillis() - lastTick);
+    final long ticks = Math.max(1, (delay + elapsed + TICK - 1) / TICK);
+    timeout.rounds = (ticks - 1) / SLOTS;
+    slots[(int) ((cursor + ticks) & MASK)].add(timeout);
+    size++;
+  }
+
+  private void tick() {
+    lastTick = System.currentTimeMillis();
+    cursor = (cursor + 1) & MASK;
+    final List<Timeout> slot = slots[cursor];
+    List<Timeout> due = null;
+    int kept = 0;
+    for (int i = 0; i < slot.size(); i++) {
+      final Timeout timeout = slot.get(i);
+      if (timeout.cancelled) {
+        size--;
+      } else if (timeout.rounds > 0) {
+        timeout.rounds--;
+        slot.set(kept++, timeout);
+      } else {
+        size--;
+        if (due == null) {
+          due = new ArrayList<>();
+        }
+        due.add(timeout);
+      }
+    }
+    slot.subList(kept, slot.size()).clear();
+
+    // the slot is settled before running the timers, periodic timers may be due again in the same slot
+    if (due != null) {
+      for (Timeout timeout : due) {
+        fire(timeout);
+      }
+    }
+
+    if (size == 0) {
+      vertx.cancelTimer(tickTimerID);
+      tickTimerID = -1;
+      wheels.byContext.remove(context, this);
+    }
+  }
+
+  private void fire(Timeout timeout) {
+    if (timeout.cancelled) {
+      return;
+    }
+    if (timeout.period > 0) {
+      insert(timeout, timeout.period);
+    }
+    try {
+      timeout.task.run();
+    } catch (Throwable t) {
+      log.error("Unhandled exception in SockJS timer", t);
+    }
+  }
+
+  /**
+   * A timer of the wheel.
+   */
+  static final class Timeout {
+
+    private final long delay;
+    private final long period;
+    private final Runnable task;
+    private volatile boolean cancelled;
+    // the number of turns of the wheel before the timer is due
+    private long rounds;
+
+    private Timeout(long delay, long period, Runnable task) {
+      this.delay = delay;
+      this.period = period;
+      this.task = task;
+    }
+
+    /**
+     * Cancels the timer, it is removed from the wheel when its slot is next visited.
+     */
+    void cancel() {
+      cancelled = true;
+    }
+  }
+
+  private static final class Wheels implements Shareable {
+    final ConcurrentMap<Context, TimerWheel> byContext = new ConcurrentHashMap<>();
+  }
+}
@@ -34,13 +34,17 @@ package io.vertx.ext.web.handler.sockjs.impl;
 
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 interface TransportListener {
 
-  void sendFrame(String body, Handler<AsyncResult<Void>> handler);
+  /**
+   * Sends a frame, the frame is US-ASCII text. The buffer is owned by the listener, it can append to it.
+   */
+  void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler);
 
   void close();
 
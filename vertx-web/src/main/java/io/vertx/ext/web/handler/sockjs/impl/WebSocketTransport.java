@@ -36,6 +36,7 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.ServerWebSocket;
@@ -47,6 +48,8 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.handler.sockjs.SockJSHandlerOptions;
 import io.vertx.ext.web.handler.sockjs.SockJSSocket;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  * @author <a href="mailto:plopes@redhat.com">Paulo Lopes</a>
@@ -71,7 +74,7 @@ class WebSocketTransport extends BaseTransport {
       } else {
         ServerWebSocket ws = rc.request().upgrade();
         if (log.isTraceEnabled()) log.trace("WS, handler");
-        SockJSSession session = new SockJSSession(vertx, sessions, rc, options.getHeartbeatInterval(), sockHandler);
+        SockJSSession session = new SockJSSession(vertx, sessions, rc, options, sockHandler);
         session.register(req, new WebSocketListener(ws, session));
       }
     });
@@ -124,10 +127,11 @@ class WebSocketTransport extends BaseTransport {
     }
 
     @Override
-    public void sendFrame(String body, Handler<AsyncResult<Void>> handler) {
+    public void sendFrame(Buffer body, Handler<AsyncResult<Void>> handler) {
       if (log.isTraceEnabled()) log.trace("WS, sending frame");
       if (!closed) {
-        ws.writeTextMessage(body, handler);
+        // text frames are only written from strings
+        ws.writeTextMessage(body.toString(StandardCharsets.US_ASCII), handler);
       } else {
         if (handler != null) {
           handler.handle(Future.failedFuture(ConnectionBase.CLOSED_EXCEPTION));
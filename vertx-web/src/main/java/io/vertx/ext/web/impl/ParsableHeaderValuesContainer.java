@@ -1,5 +1,6 @@
 package io.vertx.ext.web.impl;
 
+import io.vertx.core.http.HttpServerRequest;
 import io.vertx.ext.web.LanguageHeader;
 import io.vertx.ext.web.MIMEHeader;
 import io.vertx.ext.web.ParsedHeaderValue;
@@ -8,42 +9,58 @@ import io.vertx.ext.web.ParsedHeaderValues;
 import java.util.Collection;
 import java.util.List;
 
+/**
+ * Parses the content negotiation headers of a request on first access, most requests never look at them so there is
+ * no point in parsing and sorting them upfront.
+ */
 public class ParsableHeaderValuesContainer implements ParsedHeaderValues {
 
+  private final HttpServerRequest request;
+
   private List<MIMEHeader> accept;
   private List<ParsedHeaderValue> acceptCharset;
   private List<ParsedHeaderValue> acceptEncoding;
   private List<LanguageHeader> acceptLanguage;
   private ParsableMIMEValue contentType;
 
-  public ParsableHeaderValuesContainer(
-      List<MIMEHeader> accept, List<ParsedHeaderValue> acceptCharset, List<ParsedHeaderValue> acceptEncoding,
-      List<LanguageHeader> acceptLanguage, ParsableMIMEValue contentType) {
-    this.accept = accept;
-    this.acceptCharset = acceptCharset;
-    this.acceptEncoding = acceptEncoding;
-    this.acceptLanguage = acceptLanguage;
-    this.contentType = contentType;
+  public ParsableHeaderValuesContainer(HttpServerRequest request) {
+    this.request = request;
   }
 
   @Override
   public List<MIMEHeader> accept() {
+    if (accept == null) {
+      accept = HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(request.getHeader("Accept"), ParsableMIMEValue::new));
+    }
     return accept;
   }
   @Override
   public List<ParsedHeaderValue> acceptCharset() {
+    if (acceptCharset == null) {
+      acceptCharset = HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(request.getHeader("Accept-Charset"), ParsableHeaderValue::new));
+    }
     return acceptCharset;
   }
   @Override
   public List<ParsedHeaderValue> acceptEncoding() {
+    if (acceptEncoding == null) {
+      acceptEncoding = HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(request.getHeader("Accept-Encoding"), ParsableHeaderValue::new));
+    }
     return acceptEncoding;
   }
   @Override
   public List<LanguageHeader> acceptLanguage() {
+    if (acceptLanguage == null) {
+      acceptLanguage = HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(request.getHeader("Accept-Language"), ParsableLanguageValue::new));
+    }
     return acceptLanguage;
   }
   @Override
   public ParsableMIMEValue contentType() {
+    if (contentType == null) {
+      final String value = request.getHeader("Content-Type");
+      contentType = new ParsableMIMEValue(value == null ? "" : value);
+    }
     return contentType;
   }
 
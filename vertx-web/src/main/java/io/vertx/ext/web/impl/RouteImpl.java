@@ -211,6 +211,7 @@ public class RouteImpl implements Route {
   @Override
   public synchronized Route useNormalizedPath(boolean useNormalizedPath) {
     state = state.setUseNormalizedPath(useNormalizedPath);
+    checkChanged();
     return this;
   }
 
@@ -263,12 +264,14 @@ public class RouteImpl implements Route {
     }
 
     state = state.setPathEndsWithSlash(state.getPath().endsWith("/"));
+    checkChanged();
   }
 
   private synchronized void setRegex(String regex) {
     state = state.setPattern(Pattern.compile(regex));
     state = state.setExactPath(true);
     findNamedGroups(state.getPattern().pattern());
+    checkChanged();
   }
 
   private synchronized void findNamedGroups(String path) {
@@ -334,6 +337,12 @@ public class RouteImpl implements Route {
     }
   }
 
+  private synchronized void checkChanged() {
+    if (state.isAdded()) {
+      router.routeChanged();
+    }
+  }
+
   public synchronized RouteImpl setEmptyBodyPermittedWithConsumes(boolean emptyBodyPermittedWithConsumes) {
     state = state.setEmptyBodyPermittedWithConsumes(emptyBodyPermittedWithConsumes);
     return this;
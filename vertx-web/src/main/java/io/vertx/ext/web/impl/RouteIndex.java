@@ -0,0 +1,342 @@
+/*
+ * Copyright 2019 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.impl;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled dispatch index over the routes of a {@link RouterState}.
+ * <p>
+ * Routes with a literal path, or a parameterized path with a literal prefix, are stored in a radix tree keyed on the
+ * path relative to the mount point. A request then only visits the routes that can possibly match its path, instead
+ * of every route of the router. Routes that cannot be indexed (regular expressions, routes without a path or the
+ * catch all {@code /*}) are always visited.
+ * <p>
+ * The index only prunes routes that would never match, the candidates are returned in the order of the route set and
+ * {@link RouteState#matches(RoutingContextImplBase, String, boolean)} still has the final word, so {@code order()} and
+ * the 405/406/415 semantics are preserved.
+ * <p>
+ * This class is thread-safe
+ */
+final class RouteIndex {
+
+  private static final int[] EMPTY = new int[0];
+
+  // chars that would turn the literal prefix of a parameterized path into a regular expression
+  private static final String REGEX_META = "[]{}?*|^\\";
+  // same escaping as RouteImpl performs when generating the pattern of a parameterized path
+  private static final Pattern RE_OPERATORS_NO_STAR = Pattern.compile("([\\(\\)\\$\\+\\.])");
+
+  private final RouteImpl[] routes;
+  private final List<RouteImpl> all;
+  private final int[] always;
+  // routes that match on the normalized path
+  private final Node normalized;
+  // routes that match on the raw request path
+  private final Node raw;
+
+  RouteIndex(Set<RouteImpl> routes) {
+    this.routes = routes.toArray(new RouteImpl[0]);
+    this.all = Collections.unmodifiableList(Arrays.asList(this.routes));
+
+    final Node normalized = new Node("");
+    final Node raw = new Node("");
+    int[] always = EMPTY;
+    boolean hasNormalized = false;
+    boolean hasRaw = false;
+
+    for (int i = 0; i < this.routes.length; i++) {
+      final RouteState state = this.routes[i].state();
+      final String key = indexKey(state);
+
+      if (key == null) {
+        always = append(always, i);
+        continue;
+      }
+
+      if (state.isUseNormalizedPath()) {
+        insert(normalized, key, i, state.getPattern() == null && state.isExactPath());
+        hasNormalized = true;
+      } else {
+        insert(raw, key, i, state.getPattern() == null && state.isExactPath());
+        hasRaw = true;
+      }
+    }
+
+    this.always = always;
+    this.normalized = hasNormalized ? normalized : null;
+    this.raw = hasRaw ? raw : null;
+  }
+
+  /**
+   * Returns the routes that may match the current request of the given context, in routing order.
+   */
+  Iterator<RouteImpl> iterator(RoutingContextImplBase ctx) {
+    if (normalized == null && raw == null) {
+      // nothing was indexed, the full scan is all we can do
+      return all.iterator();
+    }
+
+    final Candidates candidates = new Candidates(always);
+    final String mountPoint = ctx.mountPoint();
+
+    try {
+      if (normalized != null) {
+        if (!lookup(normalized, ctx.normalizedPath(), mountPoint, candidates)) {
+          return all.iterator();
+        }
+      }
+      if (raw != null) {
+        final String path = ctx.request().path();
+        if (path == null || !lookup(raw, path, mountPoint, candidates)) {
+          return all.iterator();
+        }
+      }
+    } catch (RuntimeException e) {
+      // the path cannot be computed, let the route matching report the failure
+      return all.iterator();
+    }
+
+    candidates.sort();
+    return candidates;
+  }
+
+  /**
+   * Computes the literal key a route can be indexed on or {@code null} if the route must always be visited.
+   */
+  private static String indexKey(RouteState state) {
+    final String path = state.getPath();
+
+    if (path == null) {
+      // no path or a plain regular expression
+      return null;
+    }
+
+    final Pattern pattern = state.getPattern();
+
+    if (pattern == null) {
+      if (state.isExactPath()) {
+        // a single trailing slash is not relevant for the index
+        return path.charAt(path.length() - 1) == '/' ? path.substring(0, path.length() - 1) : path;
+      }
+      // "/*" matches everything
+      return path.length() == 1 ? null : path;
+    }
+
+    // parameterized path, the pattern starts with the literal text before the first parameter
+    int end = 0;
+    while (end < path.length() && path.charAt(end) != ':') {
+      if (REGEX_META.indexOf(path.charAt(end)) != -1) {
+        return null;
+      }
+      end++;
+    }
+
+    if (end <= 1 || end == path.length()) {
+      return null;
+    }
+
+    final String prefix = path.substring(0, end);
+    final String escaped = RE_OPERATORS_NO_STAR.matcher(prefix).replaceAll("\\\\$1");
+    final String regex = pattern.pattern();
+    // the pattern must have been generated from the path and not overridden later, and the prefix cannot be
+    // followed by a quantifier
+    if (regex.indexOf('|') != -1 || !regex.startsWith(escaped) || regex.length() == escaped.length()) {
+      return null;
+    }
+    final char next = regex.charAt(escaped.length());
+    if (next != '(' && next != ':') {
+      return null;
+    }
+
+    return prefix;
+  }
+
+  /**
+   * Collects the routes matching the given path relative to the mount point. Returns {@code false} when the path cannot
+   * be made relative to the mount point.
+   */
+  private static boolean lookup(Node root, String path, String mountPoint, Candidates candidates) {
+    int start = 0;
+    if (mountPoint != null) {
+      start = mountPoint.length();
+      // mount point can have significant slash
+      if (mountPoint.charAt(start - 1) == '/') {
+        start--;
+      }
+      if (start > path.length()) {
+        return false;
+      }
+    }
+
+    final int len = path.length();
+    // exact routes ignore a single trailing slash
+    final int exactEnd = len > start && path.charAt(len - 1) == '/' ? len - 1 : len;
+
+    Node node = root;
+    int i = start;
+
+    candidates.add(node.prefix);
+    if (i == exactEnd) {
+      candidates.add(node.exact);
+    }
+
+    while (i < len) {
+      final Node child = node.child(path.charAt(i));
+      if (child == null || !path.regionMatches(i, child.label, 0, child.label.length())) {
+        break;
+      }
+      i += child.label.length();
+      node = child;
+
+      candidates.add(node.prefix);
+      if (i == exactEnd) {
+        candidates.add(node.exact);
+      }
+    }
+
+    return true;
+  }
+
+  private static void insert(Node root, String key, int position, boolean exact) {
+    Node node = root;
+    int i = 0;
+
+    while (i < key.length()) {
+      Node child = node.child(key.charAt(i));
+
+      if (child == null) {
+        child = new Node(key.substring(i));
+        node.addChild(child);
+        node = child;
+        break;
+      }
+
+      final String label = child.label;
+      final int max = Math.min(label.length(), key.length() - i);
+      int common = 0;
+      while (common < max && label.charAt(common) == key.charAt(i + common)) {
+        common++;
+      }
+
+      if (common < label.length()) {
+        // split the edge at the first difference
+        final Node split = new Node(label.substring(0, common));
+        node.replaceChild(child, split);
+        child.label = label.substring(common);
+        split.addChild(child);
+        child = split;
+      }
+
+      node = child;
+      i += common;
+    }
+
+    if (exact) {
+      node.exact = append(node.exact, position);
+    } else {
+      node.prefix = append(node.prefix, position);
+    }
+  }
+
+  private static int[] append(int[] array, int value) {
+    final int[] copy = Arrays.copyOf(array, array.length + 1);
+    copy[array.length] = value;
+    return copy;
+  }
+
+  private static final class Node {
+
+    private String label;
+    private char[] keys = new char[0];
+    private Node[] children = new Node[0];
+    // routes that match any path starting with this node
+    private int[] prefix = EMPTY;
+    // routes that match only the path ending at this node
+    private int[] exact = EMPTY;
+
+    Node(String label) {
+      this.label = label;
+    }
+
+    Node child(char c) {
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] == c) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    void addChild(Node child) {
+      keys = Arrays.copyOf(keys, keys.length + 1);
+      keys[keys.length - 1] = child.label.charAt(0);
+      children = Arrays.copyOf(children, children.length + 1);
+      children[children.length - 1] = child;
+    }
+
+    void replaceChild(Node child, Node replacement) {
+      for (int i = 0; i < children.length; i++) {
+        if (children[i] == child) {
+          children[i] = replacement;
+          return;
+        }
+      }
+    }
+  }
+
+  private final class Candidates implements Iterator<RouteImpl> {
+
+    private int[] positions;
+    private int size;
+    private int cursor;
+
+    Candidates(int[] always) {
+      positions = Arrays.copyOf(always, Math.max(8, always.length + 8));
+      size = always.length;
+    }
+
+    void add(int[] values) {
+      if (values.length == 0) {
+        return;
+      }
+      if (size + values.length > positions.length) {
+        positions = Arrays.copyOf(positions, Math.max(positions.length * 2, size + values.length));
+      }
+      System.arraycopy(values, 0, positions, size, values.length);
+      size += values.length;
+    }
+
+    void sort() {
+      // restore the route order, a route is only present once
+      Arrays.sort(positions, 0, size);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return cursor < size;
+    }
+
+    @Override
+    public RouteImpl next() {
+      if (cursor >= size) {
+        throw new NoSuchElementException();
+      }
+      return routes[positions[cursor++]];
+    }
+  }
+}
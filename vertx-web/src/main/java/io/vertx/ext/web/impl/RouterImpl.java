@@ -25,6 +25,7 @@ import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.web.AllowForwardHeaders;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RouterMetrics;
 import io.vertx.ext.web.RoutingContext;
 
 import java.util.*;
@@ -52,7 +53,8 @@ public class RouterImpl implements Router {
     if (log.isTraceEnabled()) {
       log.trace("Router: " + System.identityHashCode(this) + " accepting request " + request.method() + " " + request.absoluteURI());
     }
-    new RoutingContextImpl(null, this, request, state.getRoutes()).next();
+    final RouterState state = this.state;
+    new RoutingContextImpl(null, this, request, state.getIndex(), state.getMetrics()).next();
   }
 
   @Override
@@ -227,18 +229,26 @@ public class RouterImpl implements Router {
 
   @Override
   public synchronized Router clear() {
+    final RouterState old = state;
     state = state.clearRoutes();
+    if (old.getMetrics() != null) {
+      for (Route route : old.getRoutes()) {
+        old.getMetrics().routeRemoved(route);
+      }
+    }
     return this;
   }
 
   @Override
   public void handleContext(RoutingContext ctx) {
-    new RoutingContextWrapper(getAndCheckRoutePath(ctx), state.getRoutes(), ctx).next();
+    final RouterState state = this.state;
+    new RoutingContextWrapper(getAndCheckRoutePath(ctx), state.getIndex(), state.getMetrics(), ctx).next();
   }
 
   @Override
   public void handleFailure(RoutingContext ctx) {
-    new RoutingContextWrapper(getAndCheckRoutePath(ctx), state.getRoutes(), ctx).next();
+    final RouterState state = this.state;
+    new RoutingContextWrapper(getAndCheckRoutePath(ctx), state.getIndex(), state.getMetrics(), ctx).next();
   }
 
   @Override
@@ -275,6 +285,12 @@ public class RouterImpl implements Router {
     return state.getAllowForward();
   }
 
+  @Override
+  public synchronized Router metrics(RouterMetrics metrics) {
+    state = state.setMetrics(metrics);
+    return this;
+  }
+
   @Override
   public Router mountSubRouter(String mountPoint, Router subRouter) {
     if (mountPoint.endsWith("*")) {
@@ -312,18 +328,26 @@ public class RouterImpl implements Router {
 
   synchronized void remove(RouteImpl route) {
     state = state.removeRoute(route);
+    if (state.getMetrics() != null) {
+      state.getMetrics().routeRemoved(route);
+    }
     // notify the listeners as the routes are changed
     if (state.getModifiedHandler() != null) {
       state.getModifiedHandler().handle(this);
     }
   }
 
+  synchronized void routeChanged() {
+    // the path of an active route changed, the dispatch index must be recompiled
+    state = state.resetIndex();
+  }
+
   Vertx vertx() {
     return vertx;
   }
 
-  Iterator<RouteImpl> iterator() {
-    return state.getRoutes().iterator();
+  Iterator<RouteImpl> iterator(RoutingContextImplBase ctx) {
+    return state.getIndex().iterator(ctx);
   }
 
   Handler<RoutingContext> getErrorHandlerByStatusCode(int statusCode) {
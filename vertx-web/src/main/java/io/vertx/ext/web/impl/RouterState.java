@@ -18,6 +18,7 @@ package io.vertx.ext.web.impl;
 import io.vertx.core.Handler;
 import io.vertx.ext.web.AllowForwardHeaders;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RouterMetrics;
 import io.vertx.ext.web.RoutingContext;
 
 import java.util.*;
@@ -59,14 +60,19 @@ final class RouterState {
   private final Map<Integer, Handler<RoutingContext>> errorHandlers;
   private final Handler<Router> modifiedHandler;
   private final AllowForwardHeaders allowForward;
+  private final RouterMetrics metrics;
 
-  public RouterState(RouterImpl router, Set<RouteImpl> routes, int orderSequence, Map<Integer, Handler<RoutingContext>> errorHandlers, Handler<Router> modifiedHandler, AllowForwardHeaders allowForward) {
+  // compiled lazily from the routes as the state is replaced on every mutation
+  private volatile RouteIndex index;
+
+  public RouterState(RouterImpl router, Set<RouteImpl> routes, int orderSequence, Map<Integer, Handler<RoutingContext>> errorHandlers, Handler<Router> modifiedHandler, AllowForwardHeaders allowForward, RouterMetrics metrics) {
     this.router = router;
     this.routes = routes;
     this.orderSequence = orderSequence;
     this.errorHandlers = errorHandlers;
     this.modifiedHandler = modifiedHandler;
     this.allowForward = allowForward;
+    this.metrics = metrics;
   }
 
   public RouterState(RouterImpl router) {
@@ -76,7 +82,8 @@ final class RouterState {
       0,
       null,
       null,
-      AllowForwardHeaders.NONE);
+      AllowForwardHeaders.NONE,
+      null);
   }
 
   public RouterImpl router() {
@@ -90,6 +97,27 @@ final class RouterState {
     return routes;
   }
 
+  RouteIndex getIndex() {
+    RouteIndex index = this.index;
+    if (index == null) {
+      // a race here is harmless, both threads compute the same index
+      index = new RouteIndex(getRoutes());
+      this.index = index;
+    }
+    return index;
+  }
+
+  RouterState resetIndex() {
+    return new RouterState(
+      this.router,
+      this.routes,
+      this.orderSequence,
+      this.errorHandlers,
+      this.modifiedHandler,
+      this.allowForward,
+      this.metrics);
+  }
+
   RouterState setRoutes(Set<RouteImpl> routes) {
     RouterState newState = new RouterState(
       this.router,
@@ -97,7 +125,8 @@ final class RouterState {
       this.orderSequence,
       this.errorHandlers,
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
 
     newState.routes.addAll(routes);
     return newState;
@@ -116,7 +145,8 @@ final class RouterState {
       this.orderSequence,
       this.errorHandlers,
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
   }
 
   RouterState clearRoutes() {
@@ -126,7 +156,8 @@ final class RouterState {
       this.orderSequence,
       this.errorHandlers,
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
   }
 
   RouterState removeRoute(RouteImpl route) {
@@ -142,7 +173,8 @@ final class RouterState {
       this.orderSequence,
       this.errorHandlers,
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
   }
 
   public int getOrderSequence() {
@@ -156,7 +188,8 @@ final class RouterState {
       this.orderSequence + 1,
       this.errorHandlers,
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
   }
 
   RouterState setOrderSequence(int orderSequence) {
@@ -166,7 +199,8 @@ final class RouterState {
       orderSequence,
       this.errorHandlers,
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
   }
 
   public Map<Integer, Handler<RoutingContext>> getErrorHandlers() {
@@ -180,7 +214,8 @@ final class RouterState {
       this.orderSequence,
       errorHandlers,
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
   }
 
   Handler<RoutingContext> getErrorHandler(int errorCode) {
@@ -197,7 +232,8 @@ final class RouterState {
       this.orderSequence,
       this.errorHandlers == null ? new HashMap<>() : new HashMap<>(errorHandlers),
       this.modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
 
     newState.errorHandlers.put(errorCode, errorHandler);
     return newState;
@@ -214,7 +250,8 @@ final class RouterState {
       this.orderSequence,
       this.errorHandlers,
       modifiedHandler,
-      this.allowForward);
+      this.allowForward,
+      this.metrics);
   }
 
   public RouterState setAllowForward(AllowForwardHeaders allow) {
@@ -224,13 +261,29 @@ final class RouterState {
       this.orderSequence,
       this.errorHandlers,
       this.modifiedHandler,
-      allow);
+      allow,
+      this.metrics);
   }
 
   public AllowForwardHeaders getAllowForward() {
     return allowForward;
   }
 
+  public RouterState setMetrics(RouterMetrics metrics) {
+    return new RouterState(
+      this.router,
+      this.routes,
+      this.orderSequence,
+      this.errorHandlers,
+      this.modifiedHandler,
+      this.allowForward,
+      metrics);
+  }
+
+  public RouterMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public String toString() {
     return "RouterState{" +
@@ -239,6 +292,7 @@ final class RouterState {
       ", errorHandlers=" + errorHandlers +
       ", modifiedHandler=" + modifiedHandler +
       ", this.allowForward=" + allowForward +
+      ", metrics=" + metrics +
       '}';
   }
 }
@@ -130,6 +130,11 @@ public class RoutingContextDecorator implements RoutingContext {
     return decoratedContext.getBody();
   }
 
+  @Override
+  public String getBodyFileName() {
+    return decoratedContext.getBodyFileName();
+  }
+
   @Override
   public JsonObject getBodyAsJson() {
     return decoratedContext.getBodyAsJson();
@@ -261,6 +266,11 @@ public class RoutingContextDecorator implements RoutingContext {
     decoratedContext.setBody(body);
   }
 
+  @Override
+  public void setBodyFileName(String bodyFileName) {
+    decoratedContext.setBodyFileName(bodyFileName);
+  }
+
   @Override
   public void setSession(Session session) {
     decoratedContext.setSession(session);
@@ -60,6 +60,7 @@ public class RoutingContextImpl extends RoutingContextImplBase {
   private ParsableHeaderValuesContainer parsedHeaders;
 
   private Buffer body;
+  private String bodyFileName;
   private Set<FileUpload> fileUploads;
   private Session session;
   private User user;
@@ -67,12 +68,11 @@ public class RoutingContextImpl extends RoutingContextImplBase {
   private volatile boolean isSessionAccessed = false;
   private volatile boolean endHandlerCalled = false;
 
-  public RoutingContextImpl(String mountPoint, RouterImpl router, HttpServerRequest request, Set<RouteImpl> routes) {
-    super(mountPoint, routes);
+  public RoutingContextImpl(String mountPoint, RouterImpl router, HttpServerRequest request, RouteIndex routes, RouterMetrics metrics) {
+    super(mountPoint, routes, metrics);
     this.router = router;
     this.request = new HttpServerRequestWrapper(request, router.getAllowForward());
 
-    fillParsedHeaders(request);
     if (request.path().length() == 0) {
       // HTTP paths must start with a '/'
       fail(400);
@@ -82,27 +82,6 @@ public class RoutingContextImpl extends RoutingContextImplBase {
     }
   }
 
-  private String ensureNotNull(String string){
-    return string == null ? "" : string;
-  }
-
-  private void fillParsedHeaders(HttpServerRequest request) {
-    String accept = request.getHeader("Accept");
-    String acceptCharset = request.getHeader ("Accept-Charset");
-    String acceptEncoding = request.getHeader("Accept-Encoding");
-    String acceptLanguage = request.getHeader("Accept-Language");
-    String contentType = ensureNotNull(request.getHeader("Content-Type"));
-
-    parsedHeaders = new ParsableHeaderValuesContainer(
-        HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(accept, ParsableMIMEValue::new)),
-        HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(acceptCharset, ParsableHeaderValue::new)),
-        HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(acceptEncoding, ParsableHeaderValue::new)),
-        HeaderParser.sort(HeaderParser.convertToParsedHeaderValues(acceptLanguage, ParsableLanguageValue::new)),
-        new ParsableMIMEValue(contentType)
-    );
-
-  }
-
   @Override
   public HttpServerRequest request() {
     return request;
@@ -141,6 +120,9 @@ public class RoutingContextImpl extends RoutingContextImplBase {
       // Send back FAILURE
       unhandledFailure(statusCode, failure, router);
     } else {
+      if (metrics != null) {
+        metrics.noMatch(this.matchFailure);
+      }
       Handler<RoutingContext> handler = router.getErrorHandlerByStatusCode(this.matchFailure);
       this.statusCode = this.matchFailure;
       if (handler == null) { // Default 404 handling
@@ -248,6 +230,7 @@ public class RoutingContextImpl extends RoutingContextImplBase {
 
   @Override
   public String getBodyAsString() {
+    final Buffer body = body();
     if (body != null) {
       ParsableHeaderValuesContainer parsedHeaders = parsedHeaders();
       if (parsedHeaders != null) {
@@ -266,11 +249,13 @@ public class RoutingContextImpl extends RoutingContextImplBase {
 
   @Override
   public String getBodyAsString(String encoding) {
+    final Buffer body = body();
     return body != null ? body.toString(encoding) : null;
   }
 
   @Override
   public JsonObject getBodyAsJson() {
+    final Buffer body = body();
     if (body != null) {
       return BodyCodecImpl.JSON_OBJECT_DECODER.apply(body);
     }
@@ -279,6 +264,7 @@ public class RoutingContextImpl extends RoutingContextImplBase {
 
   @Override
   public JsonArray getBodyAsJsonArray() {
+    final Buffer body = body();
     if (body != null) {
       return BodyCodecImpl.JSON_ARRAY_DECODER.apply(body);
     }
@@ -287,12 +273,37 @@ public class RoutingContextImpl extends RoutingContextImplBase {
 
   @Override
   public Buffer getBody() {
+    final Buffer body = body();
+    if (body != null && body.getByteBuf().nioBufferCount() > 1) {
+      // the body handler gathered the body as a list of chunks, they are copied once in a contiguous buffer
+      this.body = Buffer.buffer(body.length()).appendBuffer(body);
+    }
+    return this.body;
+  }
+
+  /**
+   * Returns the body without making it contiguous, the decoders read the chunks directly.
+   */
+  private Buffer body() {
+    // a body spilled to disk is never loaded implicitly, it is read from getBodyFileName()
     return body;
   }
 
   @Override
   public void setBody(Buffer body) {
     this.body = body;
+    this.bodyFileName = null;
+  }
+
+  @Override
+  public String getBodyFileName() {
+    return bodyFileName;
+  }
+
+  @Override
+  public void setBodyFileName(String bodyFileName) {
+    this.body = null;
+    this.bodyFileName = bodyFileName;
   }
 
   @Override
@@ -343,6 +354,9 @@ public class RoutingContextImpl extends RoutingContextImplBase {
 
   @Override
   public ParsableHeaderValuesContainer parsedHeaders() {
+    if (parsedHeaders == null) {
+      parsedHeaders = new ParsableHeaderValuesContainer(request);
+    }
     return parsedHeaders;
   }
 
@@ -514,7 +528,7 @@ public class RoutingContextImpl extends RoutingContextImplBase {
   }
 
   private void doFail() {
-    this.iter = router.iterator();
+    this.iter = router.iterator(this);
     currentRoute = null;
     next();
   }
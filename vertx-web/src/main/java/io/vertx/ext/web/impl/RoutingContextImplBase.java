@@ -21,11 +21,11 @@ import io.vertx.core.Handler;
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RouterMetrics;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.impl.HttpStatusException;
 
 import java.util.Iterator;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -35,7 +35,9 @@ public abstract class RoutingContextImplBase implements RoutingContext {
 
   private static final Logger LOG = LoggerFactory.getLogger(RoutingContextImplBase.class);
 
-  private final Set<RouteImpl> routes;
+  private final RouteIndex routes;
+  // null unless the router has metrics, so measuring costs nothing by default
+  protected final RouterMetrics metrics;
 
   protected final String mountPoint;
   protected Iterator<RouteImpl> iter;
@@ -48,11 +50,14 @@ public abstract class RoutingContextImplBase implements RoutingContext {
   // the current path matched string
   int matchRest = -1;
   boolean matchNormalized;
+  // time spent in the handlers called synchronously by the handler being measured
+  private long nestedNanos;
 
-  RoutingContextImplBase(String mountPoint, Set<RouteImpl> routes) {
+  RoutingContextImplBase(String mountPoint, RouteIndex routes, RouterMetrics metrics) {
     this.mountPoint = mountPoint;
     this.routes = routes;
-    this.iter = routes.iterator();
+    this.metrics = metrics;
+    // the candidate routes depend on the request path, so they are only computed once routing starts
     this.currentRouteNextHandlerIndex = new AtomicInteger(0);
     this.currentRouteNextFailureHandlerIndex = new AtomicInteger(0);
     resetMatchFailure();
@@ -80,7 +85,7 @@ public abstract class RoutingContextImplBase implements RoutingContext {
   }
 
   void restart() {
-    this.iter = routes.iterator();
+    this.iter = null;
     currentRoute = null;
     next();
   }
@@ -92,11 +97,11 @@ public abstract class RoutingContextImplBase implements RoutingContext {
         if (!failed && currentRoute.hasNextContextHandler(this)) {
           currentRouteNextHandlerIndex.incrementAndGet();
           resetMatchFailure();
-          currentRoute.handleContext(this);
+          handleContext(currentRoute);
           return true;
         } else if (failed && currentRoute.hasNextFailureHandler(this)) {
           currentRouteNextFailureHandlerIndex.incrementAndGet();
-          currentRoute.handleFailure(this);
+          handleFailure(currentRoute);
           return true;
         }
       } catch (Throwable t) {
@@ -104,6 +109,9 @@ public abstract class RoutingContextImplBase implements RoutingContext {
         return true;
       }
     }
+    if (iter == null) {
+      iter = routes.iterator(this);
+    }
     // Search for more handlers
     while (iter.hasNext()) {
       // state is locked at this moment
@@ -112,6 +120,9 @@ public abstract class RoutingContextImplBase implements RoutingContext {
       currentRouteNextHandlerIndex.set(0);
       currentRouteNextFailureHandlerIndex.set(0);
       try {
+        if (metrics != null) {
+          metrics.matchAttempt(routeState.getRoute());
+        }
         int matchResult = routeState.matches(this, mountPoint(), failed);
         if (matchResult == 0) {
           if (LOG.isTraceEnabled()) {
@@ -125,10 +136,16 @@ public abstract class RoutingContextImplBase implements RoutingContext {
             }
             if (failed && currentRoute.hasNextFailureHandler(this)) {
               currentRouteNextFailureHandlerIndex.incrementAndGet();
-              routeState.handleFailure(this);
+              if (metrics != null) {
+                metrics.matched(routeState.getRoute());
+              }
+              handleFailure(routeState);
             } else if (currentRoute.hasNextContextHandler(this)) {
               currentRouteNextHandlerIndex.incrementAndGet();
-              routeState.handleContext(this);
+              if (metrics != null) {
+                metrics.matched(routeState.getRoute());
+              }
+              handleContext(routeState);
             } else {
               continue;
             }
@@ -154,6 +171,40 @@ public abstract class RoutingContextImplBase implements RoutingContext {
     return false;
   }
 
+  private void handleContext(RouteState routeState) {
+    if (metrics == null) {
+      routeState.handleContext(this);
+      return;
+    }
+    final long parentNestedNanos = nestedNanos;
+    nestedNanos = 0;
+    final long start = System.nanoTime();
+    try {
+      routeState.handleContext(this);
+    } finally {
+      final long elapsed = System.nanoTime() - start;
+      metrics.handlerTime(routeState.getRoute(), elapsed - nestedNanos);
+      nestedNanos = parentNestedNanos + elapsed;
+    }
+  }
+
+  private void handleFailure(RouteState routeState) {
+    if (metrics == null) {
+      routeState.handleFailure(this);
+      return;
+    }
+    final long parentNestedNanos = nestedNanos;
+    nestedNanos = 0;
+    final long start = System.nanoTime();
+    try {
+      routeState.handleFailure(this);
+    } finally {
+      final long elapsed = System.nanoTime() - start;
+      metrics.failureHandlerTime(routeState.getRoute(), elapsed - nestedNanos);
+      nestedNanos = parentNestedNanos + elapsed;
+    }
+  }
+
   private void handleInHandlerRuntimeFailure(RouterImpl router, boolean failed, Throwable t) {
     if (LOG.isTraceEnabled()) {
       LOG.trace("Throwable thrown from handler", t);
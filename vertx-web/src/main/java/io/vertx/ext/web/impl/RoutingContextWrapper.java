@@ -43,8 +43,8 @@ public class RoutingContextWrapper extends RoutingContextImplBase {
   protected final RoutingContext inner;
   private final String mountPoint;
 
-  public RoutingContextWrapper(String mountPoint, Set<RouteImpl> iter, RoutingContext inner) {
-    super(mountPoint, iter);
+  public RoutingContextWrapper(String mountPoint, RouteIndex routes, RouterMetrics metrics, RoutingContext inner) {
+    super(mountPoint, routes, metrics);
     this.inner = inner;
     String parentMountPoint = inner.mountPoint();
     if (parentMountPoint == null) {
@@ -261,6 +261,16 @@ public class RoutingContextWrapper extends RoutingContextImplBase {
     inner.setBody(body);
   }
 
+  @Override
+  public String getBodyFileName() {
+    return inner.getBodyFileName();
+  }
+
+  @Override
+  public void setBodyFileName(String bodyFileName) {
+    inner.setBodyFileName(bodyFileName);
+  }
+
   @Override
   public Set<FileUpload> fileUploads() {
     return inner.fileUploads();
@@ -214,8 +214,13 @@ public class Utils extends io.vertx.core.impl.Utils {
       }
 
       if (etagStale) {
-        return false;
+        // the last tag of the list
+        String match = noneMatch.substring(start, end);
+        etagStale = !(match.equals(etag) || match.equals("W/" + etag) || ("W/" + match).equals(etag));
       }
+
+      // if-none-match takes precedence over if-modified-since
+      return !etagStale;
     }
 
     // if-modified-since
@@ -27,8 +27,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * The abstract session class provides a barebones implementation for session storage implementors.
  *
  * This class will contain all the related data required for a session plus a couple of helper methods to verify the
- * integrity and versioning of the data. This checksum is important to reduce the amount of times data is pushed to
- * be stored on a backend.
+ * integrity and versioning of the data. Changes are tracked as they are made, through {@link #put(String, Object)},
+ * {@link #remove(String)}, {@link #data()} and {@link #regenerateId()}, this is important to reduce the amount of times
+ * data is pushed to be stored on a backend. A value mutated in place is not noticed and must be put again.
  *
  * As a Vert.x Web user, you should not have to deal with this class directly but with the public interface that it
  * implements.
@@ -46,6 +47,11 @@ public abstract class AbstractSession implements Session {
   private volatile Map<String, Object> data;
   private long lastAccessed;
   private int version;
+  // the data changed since the session was loaded or last stored
+  private volatile boolean dirty;
+  // the keys that changed, unless the whole session must be written
+  private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+  private volatile boolean dirtyAll;
 
   protected void setId(String id) {
     this.id = id;
@@ -58,7 +64,6 @@ public abstract class AbstractSession implements Session {
   protected void setData(Map<String, Object> data) {
     if (data != null) {
       this.data = data;
-      this.crc = checksum();
     }
   }
 
@@ -80,7 +85,6 @@ public abstract class AbstractSession implements Session {
   private boolean destroyed;
   private boolean renewed;
   private String oldId;
-  private int crc;
 
   /**
    * This constructor is <b>mandatory</b> (even though not referenced anywhere) is required for
@@ -120,6 +124,8 @@ public abstract class AbstractSession implements Session {
     // ids are stored in hex, so the original size is half of the hex encoded length
     id = generateId(prng, oldId.length() / 2);
     renewed = true;
+    // the data must be written again under the new id
+    changedAll();
     return this;
   }
 
@@ -131,37 +137,61 @@ public abstract class AbstractSession implements Session {
   @Override
   @SuppressWarnings("unchecked")
   public <T> T get(String key) {
-    if (isEmpty()) {
+    final Map<String, Object> data = this.data;
+    if (data == null) {
       return null;
     }
-    Object obj = data().get(key);
+    Object obj = data.get(key);
     return (T) obj;
   }
 
   @Override
   public Session put(String key, Object obj) {
-    final Map<String, Object> data = data();
+    final Map<String, Object> data = data0();
     // nulls are handled as remove actions
     if (obj == null) {
       data.remove(key);
     } else {
       data.put(key, obj);
     }
+    changed(key);
     return this;
   }
 
   @Override
   @SuppressWarnings("unchecked")
   public <T> T remove(String key) {
-    if (isEmpty()) {
+    final Map<String, Object> data = this.data;
+    if (data == null) {
       return null;
     }
-    Object obj = data().remove(key);
+    Object obj = data.remove(key);
+    if (obj != null) {
+      changed(key);
+    }
     return (T) obj;
   }
 
+  /**
+   * The returned map is mutable, so the session is considered as modified.
+   */
   @Override
   public Map<String, Object> data() {
+    changedAll();
+    return data0();
+  }
+
+  /**
+   * Returns the session data without considering the session as modified. This is meant for store implementations
+   * reading the data, e.g.: to serialize it.
+   *
+   * @return the session data, {@code null} when there is none
+   */
+  protected Map<String, Object> peekData() {
+    return data;
+  }
+
+  private Map<String, Object> data0() {
     if (data == null) {
       synchronized (this) {
         // double check since there could already been someone in the lock
@@ -198,6 +228,7 @@ public abstract class AbstractSession implements Session {
     synchronized (this) {
       destroyed = true;
       data = null;
+      changedAll();
     }
   }
 
@@ -220,16 +251,56 @@ public abstract class AbstractSession implements Session {
     return version;
   }
 
-  public void incrementVersion() {
-    int old = this.crc;
-    // update the checksum
-    crc = checksum();
+  /**
+   * @return {@code true} when the session changed since it was loaded or last stored
+   */
+  public boolean isDirty() {
+    return dirty;
+  }
 
-    if (this.crc != old) {
+  /**
+   * Returns the keys that were put or removed since the session was loaded or last stored, so stores can only write
+   * these entries.
+   *
+   * @return the keys, or {@code null} when the whole session must be written, e.g.: the data map was exposed with
+   * {@link #data()} or the id was regenerated
+   */
+  public Set<String> dirtyKeys() {
+    return dirtyAll ? null : Collections.unmodifiableSet(dirtyKeys);
+  }
+
+  /**
+   * Increments the version if the session changed, this is called by the stores as the session is being stored.
+   */
+  public void incrementVersion() {
+    if (dirty) {
+      clearDirty();
       ++version;
     }
   }
 
+  /**
+   * Forgets the changes of the session, for stores managing the version themselves once the changes are stored.
+   */
+  protected void clearDirty() {
+    dirty = false;
+    dirtyAll = false;
+    dirtyKeys.clear();
+  }
+
+  private void changed(String key) {
+    if (!dirtyAll) {
+      dirtyKeys.add(key);
+    }
+    dirty = true;
+  }
+
+  private void changedAll() {
+    dirtyAll = true;
+    dirtyKeys.clear();
+    dirty = true;
+  }
+
   private static String generateId(VertxContextPRNG rng, int length) {
     final byte[] bytes = new byte[length];
     rng.nextBytes(bytes);
@@ -244,8 +315,12 @@ public abstract class AbstractSession implements Session {
     return new String(hex);
   }
 
+  /**
+   * @deprecated changes are tracked with {@link #isDirty()}, this returns the {@link #checksum()} of the current data
+   */
+  @Deprecated
   protected int crc() {
-    return crc;
+    return checksum();
   }
 
   protected int checksum() {
@@ -40,6 +40,11 @@ public interface ClusteredSessionStore extends SessionStore {
    */
   long DEFAULT_RETRY_TIMEOUT = 5 * 1000; // 5 seconds
 
+  /**
+   * Default size of the near cache, 0 means no near cache.
+   */
+  int DEFAULT_NEAR_CACHE_SIZE = 0;
+
   /**
    * Create a session store
    *
@@ -74,6 +79,28 @@ public interface ClusteredSessionStore extends SessionStore {
     return store;
   }
 
+  /**
+   * Create a session store with a near cache.<p/>
+   *
+   * The near cache keeps up to {@code nearCacheSize} sessions of this node in memory, so they are read without going
+   * through the cluster. It suits deployments using sticky sessions. Sessions changed or deleted on a node are evicted
+   * from the near caches of the other nodes with a message on the event bus.
+   *
+   * @param vertx  the Vert.x instance
+   * @param sessionMapName  the session map name
+   * @param retryTimeout the store retry timeout, in ms
+   * @param nearCacheSize the maximum number of sessions kept in the near cache
+   * @return the session store
+   */
+  static ClusteredSessionStore create(Vertx vertx, String sessionMapName, long retryTimeout, int nearCacheSize) {
+    ClusteredSessionStoreImpl store = new ClusteredSessionStoreImpl();
+    store.init(vertx, new JsonObject()
+      .put("retryTimeout", retryTimeout)
+      .put("mapName", sessionMapName)
+      .put("nearCacheSize", nearCacheSize));
+    return store;
+  }
+
   /**
    * Create a session store
    *
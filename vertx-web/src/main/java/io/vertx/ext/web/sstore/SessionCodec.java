@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.Map;
+
+/**
+ * Serializes the data of the sessions shared across the cluster.
+ * <p>
+ * Codecs are loaded with the {@link java.util.ServiceLoader}. Every serialized session starts with the format of the
+ * codec that wrote it, so a node reads the sessions written with any of the codecs it knows, including the format of
+ * the previous versions of Vert.x Web. Sessions are still written with the format of the previous versions, so nodes
+ * not yet upgraded can read them, until the {@code vertx.web.sessionFormat} system property selects the format of a
+ * codec, e.g.: {@code 1} for the compact default codec.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface SessionCodec {
+
+  /**
+   * @return the format of this codec, between {@code 2} and {@code 127}, {@code 1} is the format of the default codec
+   */
+  int format();
+
+  /**
+   * Appends the session data to the buffer.
+   *
+   * @param data  the session data
+   * @param buffer  the buffer
+   */
+  void encode(Map<String, Object> data, Buffer buffer);
+
+  /**
+   * Reads session data written by {@link #encode(Map, Buffer)}.
+   *
+   * @param buffer  the buffer
+   * @param pos  the position of the data in the buffer
+   * @param data  the map to read the data into
+   * @return the position after the data
+   */
+  int decode(Buffer buffer, int pos, Map<String, Object> data);
+}
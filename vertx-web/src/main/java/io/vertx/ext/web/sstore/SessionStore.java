@@ -173,6 +173,30 @@ public interface SessionStore {
     return promise.future();
   }
 
+  /**
+   * Extend the life of a session that was not modified. Unlike {@link #put(Session, Handler)} the session data is
+   * not compared nor versioned, stores should only refresh the expiration of the session when they can.
+   * <p>
+   * By default the session is put in the store.
+   *
+   * @param session  the session
+   * @param resultHandler  will be called with a success or a failure
+   */
+  default void touch(Session session, Handler<AsyncResult<Void>> resultHandler) {
+    put(session, resultHandler);
+  }
+
+  /**
+   * @see SessionStore#touch(Session, Handler)
+   * @param session the session
+   * @return future that will be called with a result, or a failure
+   */
+  default Future<Void> touch(Session session) {
+    Promise<Void> promise = Promise.promise();
+    touch(session, promise);
+    return promise.future();
+  }
+
   /**
    * Remove all sessions from the store.
    *
@@ -20,14 +20,20 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.shareddata.AsyncMap;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.Session;
+import io.vertx.ext.web.common.impl.ConcurrentLRUCache;
 import io.vertx.ext.web.sstore.AbstractSession;
 import io.vertx.ext.web.sstore.ClusteredSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
 
+import java.util.UUID;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -52,6 +58,12 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
   // Clustered Map
   private volatile AsyncMap<String, Session> sessionMap;
 
+  // serialized sessions of this node, every get reads its own copy, null when there is no near cache
+  private ConcurrentLRUCache<String, Buffer> nearCache;
+  // identifies the invalidations sent by this store
+  private String origin;
+  private MessageConsumer<JsonObject> invalidations;
+
   @Override
   public SessionStore init(Vertx vertx, JsonObject options) {
     this.vertx = vertx;
@@ -59,6 +71,13 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
     this.retryTimeout = options.getLong("retryTimeout", DEFAULT_RETRY_TIMEOUT);
     this.random = VertxContextPRNG.current(vertx);
 
+    final int nearCacheSize = options.getInteger("nearCacheSize", DEFAULT_NEAR_CACHE_SIZE);
+    if (nearCacheSize > 0) {
+      this.nearCache = new ConcurrentLRUCache<>(nearCacheSize);
+      this.origin = UUID.randomUUID().toString();
+      this.invalidations = vertx.eventBus().consumer(invalidationAddress(), this::invalidated);
+    }
+
     return this;
   }
 
@@ -79,6 +98,20 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
 
   @Override
   public void get(String id, Handler<AsyncResult<Session>> resultHandler) {
+    if (nearCache != null) {
+      final Buffer cached = nearCache.get(id);
+      if (cached != null) {
+        final SharedDataSessionImpl session = new SharedDataSessionImpl(random);
+        session.readFromBuffer(0, cached);
+        if (System.currentTimeMillis() - session.lastAccessed() <= session.timeout()) {
+          resultHandler.handle(Future.succeededFuture(session));
+          return;
+        }
+        // the session expired in the cluster map too
+        nearCache.remove(id, cached);
+      }
+    }
+
     getMap(res -> {
       if (res.succeeded()) {
         res.result().get(id, res2 -> {
@@ -86,6 +119,7 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
             AbstractSession session = (AbstractSession) res2.result();
             if (session != null) {
               session.setPRNG(random);
+              cache(session);
             }
             resultHandler.handle(Future.succeededFuture(res2.result()));
           } else {
@@ -104,6 +138,10 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
       if (res.succeeded()) {
         res.result().remove(id, res2 -> {
           if (res2.succeeded()) {
+            if (nearCache != null) {
+              nearCache.remove(id);
+              invalidate(id);
+            }
             resultHandler.handle(Future.succeededFuture());
           } else {
             resultHandler.handle(Future.failedFuture(res2.cause()));
@@ -134,6 +172,10 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
           if (oldSession != null) {
             // there was already some stored data in this case we need to validate versions
             if (oldSession.version() != newSession.version()) {
+              if (nearCache != null) {
+                // the cached session is stale
+                nearCache.remove(session.id());
+              }
               resultHandler.handle(Future.failedFuture("Version mismatch"));
               return;
             }
@@ -144,6 +186,47 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
 
           res.result().put(session.id(), session, session.timeout(), res2 -> {
             if (res2.succeeded()) {
+              if (nearCache != null) {
+                cache(session);
+                invalidate(session.id());
+              }
+              resultHandler.handle(Future.succeededFuture());
+            } else {
+              resultHandler.handle(Future.failedFuture(res2.cause()));
+            }
+          });
+        });
+      } else {
+        resultHandler.handle(Future.failedFuture(res.cause()));
+      }
+    });
+  }
+
+  @Override
+  public void touch(Session session, Handler<AsyncResult<Void>> resultHandler) {
+    getMap(res -> {
+      if (res.succeeded()) {
+        // the map has no way to only extend the ttl, the unchanged session is written again unless a newer version was
+        // written in the meantime, or the session was removed
+        res.result().get(session.id(), old -> {
+          if (old.failed()) {
+            resultHandler.handle(Future.failedFuture(old.cause()));
+            return;
+          }
+          final AbstractSession oldSession = (AbstractSession) old.result();
+          if (oldSession == null || oldSession.version() != ((AbstractSession) session).version()) {
+            if (nearCache != null) {
+              nearCache.remove(session.id());
+            }
+            resultHandler.handle(Future.succeededFuture());
+            return;
+          }
+          res.result().put(session.id(), session, session.timeout(), res2 -> {
+            if (res2.succeeded()) {
+              if (nearCache != null) {
+                cache(session);
+                invalidate(session.id());
+              }
               resultHandler.handle(Future.succeededFuture());
             } else {
               resultHandler.handle(Future.failedFuture(res2.cause()));
@@ -162,6 +245,10 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
       if (res.succeeded()) {
         res.result().clear(res2 -> {
           if (res2.succeeded()) {
+            if (nearCache != null) {
+              nearCache.clear();
+              invalidate(null);
+            }
             resultHandler.handle(Future.succeededFuture());
           } else {
             resultHandler.handle(Future.failedFuture(res2.cause()));
@@ -192,6 +279,47 @@ public class ClusteredSessionStoreImpl implements SessionStore, ClusteredSession
 
   @Override
   public void close() {
+    if (invalidations != null) {
+      invalidations.unregister();
+    }
+  }
+
+  /**
+   * Keeps a copy of the session in the near cache, the requests of this node must not share a session instance.
+   */
+  private void cache(Session session) {
+    if (nearCache != null && session instanceof SharedDataSessionImpl) {
+      final Buffer buffer = Buffer.buffer();
+      ((SharedDataSessionImpl) session).writeToBuffer(buffer);
+      nearCache.put(session.id(), buffer);
+    }
+  }
+
+  private String invalidationAddress() {
+    return "__vertx.web.sessions." + sessionMapName + ".invalidate";
+  }
+
+  /**
+   * Evicts a session, or all sessions when {@code id} is {@code null}, from the near caches of the other stores. The
+   * near cache of this store is kept up to date by the caller.
+   */
+  private void invalidate(String id) {
+    vertx.eventBus().publish(invalidationAddress(), new JsonObject()
+      .put("origin", origin)
+      .put("id", id));
+  }
+
+  private void invalidated(Message<JsonObject> message) {
+    final JsonObject body = message.body();
+    if (origin.equals(body.getString("origin"))) {
+      return;
+    }
+    final String id = body.getString("id");
+    if (id == null) {
+      nearCache.clear();
+    } else {
+      nearCache.remove(id);
+    }
   }
 
   private void getMap(Handler<AsyncResult<AsyncMap<String, Session>>> resultHandler) {
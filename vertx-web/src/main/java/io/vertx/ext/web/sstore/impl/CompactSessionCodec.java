@@ -0,0 +1,362 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.impl;
+
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.shareddata.impl.ClusterSerializable;
+import io.vertx.ext.web.impl.Utils;
+import io.vertx.ext.web.sstore.SessionCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The default {@link SessionCodec}.
+ * <p>
+ * Lengths and integral numbers are written as varints. Keys and class names are written once per session, later
+ * occurrences refer to the first one, and the keys and class names used by Vert.x Web are never written at all: they
+ * refer to a dictionary known by every node. The dictionary is part of the format, changing it requires a new format.
+ * <p>
+ * Data larger than {@link #COMPRESSION_THRESHOLD} bytes is deflated.
+ * <p>
+ * This class is thread-safe
+ */
+final class CompactSessionCodec implements SessionCodec {
+
+  static final int FORMAT = 1;
+  static final int COMPRESSION_THRESHOLD = 4096;
+
+  private static final byte FLAG_DEFLATED = 1;
+
+  private static final String[] DICTIONARY = {
+    "__vertx.userHolder",
+    "io.vertx.ext.web.handler.impl.UserHolder",
+    "X-XSRF-TOKEN",
+    "return_url",
+    "io.vertx.core.json.JsonObject",
+    "io.vertx.core.json.JsonArray"
+  };
+
+  private static final Map<String, Integer> DICTIONARY_INDEX = new HashMap<>();
+
+  static {
+    for (int i = 0; i < DICTIONARY.length; i++) {
+      DICTIONARY_INDEX.put(DICTIONARY[i], i);
+    }
+  }
+
+  private static final byte TYPE_LONG = 1;
+  private static final byte TYPE_INT = 2;
+  private static final byte TYPE_SHORT = 3;
+  private static final byte TYPE_BYTE = 4;
+  private static final byte TYPE_DOUBLE = 5;
+  private static final byte TYPE_FLOAT = 6;
+  private static final byte TYPE_CHAR = 7;
+  private static final byte TYPE_TRUE = 8;
+  private static final byte TYPE_FALSE = 9;
+  private static final byte TYPE_STRING = 10;
+  private static final byte TYPE_BUFFER = 11;
+  private static final byte TYPE_BYTES = 12;
+  private static final byte TYPE_CLUSTER_SERIALIZABLE = 13;
+
+  @Override
+  public int format() {
+    return FORMAT;
+  }
+
+  @Override
+  public void encode(Map<String, Object> data, Buffer buffer) {
+    final Writer writer = new Writer();
+    writer.varint(data.size());
+    for (Map.Entry<String, Object> entry : data.entrySet()) {
+      writer.string(entry.getKey());
+      writer.value(entry.getValue());
+    }
+
+    final Buffer body = writer.buffer;
+    if (body.length() < COMPRESSION_THRESHOLD) {
+      buffer.appendByte((byte) 0).appendBuffer(body);
+      return;
+    }
+
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    try {
+      deflater.setInput(body.getBytes());
+      deflater.finish();
+      final Buffer deflated = Buffer.buffer(body.length() / 2);
+      final byte[] chunk = new byte[4096];
+      while (!deflater.finished()) {
+        final int n = deflater.deflate(chunk);
+        deflated.appendBytes(chunk, 0, n);
+      }
+      buffer.appendByte(FLAG_DEFLATED);
+      appendVarint(buffer, body.length());
+      appendVarint(buffer, deflated.length());
+      buffer.appendBuffer(deflated);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  @Override
+  public int decode(Buffer buffer, int pos, Map<String, Object> data) {
+    try {
+      return doDecode(buffer, pos, data);
+    } catch (IndexOutOfBoundsException e) {
+      throw new IllegalStateException("Truncated session data", e);
+    }
+  }
+
+  private int doDecode(Buffer buffer, int pos, Map<String, Object> data) {
+    final byte flags = buffer.getByte(pos++);
+    if ((flags & FLAG_DEFLATED) == 0) {
+      final Reader reader = new Reader(buffer, pos);
+      reader.data(data);
+      return reader.pos;
+    }
+
+    final Reader header = new Reader(buffer, pos);
+    final int length = header.varint();
+    final int deflatedLength = header.varint();
+    pos = header.pos;
+    if (pos + deflatedLength > buffer.length()) {
+      throw new IllegalStateException("Truncated session data");
+    }
+
+    final Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(buffer.getBytes(pos, pos + deflatedLength));
+      final byte[] body = new byte[length];
+      int n = 0;
+      while (n < length) {
+        final int read = inflater.inflate(body, n, length - n);
+        if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+          throw new IllegalStateException("Truncated session data");
+        }
+        n += read;
+      }
+      new Reader(Buffer.buffer(body), 0).data(data);
+    } catch (DataFormatException e) {
+      throw new VertxException(e);
+    } finally {
+      inflater.end();
+    }
+    return pos + deflatedLength;
+  }
+
+  private static void appendVarint(Buffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.appendByte((byte) value);
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static final class Writer {
+
+    final Buffer buffer = Buffer.buffer();
+    // the strings written in this session, a string is referred by its index after the dictionary
+    private Map<String, Integer> strings;
+
+    void varint(long value) {
+      appendVarint(buffer, value);
+    }
+
+    /**
+     * Writes a reference to a known string, or the string itself the first time it is written.
+     */
+    void string(String value) {
+      Integer index = DICTIONARY_INDEX.get(value);
+      if (index == null && strings != null) {
+        index = strings.get(value);
+      }
+      if (index != null) {
+        varint(((long) index << 1) | 1);
+        return;
+      }
+      if (strings == null) {
+        strings = new HashMap<>();
+      }
+      strings.put(value, DICTIONARY.length + strings.size());
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      varint((long) bytes.length << 1);
+      buffer.appendBytes(bytes);
+    }
+
+    void value(Object val) {
+      if (val instanceof Long) {
+        buffer.appendByte(TYPE_LONG);
+        varint(zigzag((long) val));
+      } else if (val instanceof Integer) {
+        buffer.appendByte(TYPE_INT);
+        varint(zigzag((int) val));
+      } else if (val instanceof Short) {
+        buffer.appendByte(TYPE_SHORT);
+        varint(zigzag((short) val));
+      } else if (val instanceof Byte) {
+        buffer.appendByte(TYPE_BYTE).appendByte((byte) val);
+      } else if (val instanceof Double) {
+        buffer.appendByte(TYPE_DOUBLE).appendDouble((double) val);
+      } else if (val instanceof Float) {
+        buffer.appendByte(TYPE_FLOAT).appendFloat((float) val);
+      } else if (val instanceof Character) {
+        buffer.appendByte(TYPE_CHAR);
+        varint((char) val);
+      } else if (val instanceof Boolean) {
+        buffer.appendByte((boolean) val ? TYPE_TRUE : TYPE_FALSE);
+      } else if (val instanceof String) {
+        final byte[] bytes = ((String) val).getBytes(StandardCharsets.UTF_8);
+        buffer.appendByte(TYPE_STRING);
+        varint(bytes.length);
+        buffer.appendBytes(bytes);
+      } else if (val instanceof Buffer) {
+        final Buffer buff = (Buffer) val;
+        buffer.appendByte(TYPE_BUFFER);
+        varint(buff.length());
+        buffer.appendBuffer(buff);
+      } else if (val instanceof byte[]) {
+        final byte[] bytes = (byte[]) val;
+        buffer.appendByte(TYPE_BYTES);
+        varint(bytes.length);
+        buffer.appendBytes(bytes);
+      } else if (val instanceof ClusterSerializable) {
+        buffer.appendByte(TYPE_CLUSTER_SERIALIZABLE);
+        string(val.getClass().getName());
+        ((ClusterSerializable) val).writeToBuffer(buffer);
+      } else {
+        throw new IllegalStateException("Invalid type for data in session: " + (val == null ? null : val.getClass()));
+      }
+    }
+  }
+
+  private static final class Reader {
+
+    private final Buffer buffer;
+    int pos;
+    private List<String> strings;
+
+    Reader(Buffer buffer, int pos) {
+      this.buffer = buffer;
+      this.pos = pos;
+    }
+
+    void data(Map<String, Object> data) {
+      final int entries = varint();
+      for (int i = 0; i < entries; i++) {
+        final String key = string();
+        data.put(key, value());
+      }
+    }
+
+    int varint() {
+      return (int) varlong();
+    }
+
+    long varlong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final byte b = buffer.getByte(pos++);
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalStateException("Malformed varint");
+    }
+
+    String string() {
+      final long ref = varlong();
+      if ((ref & 1) == 1) {
+        final int index = (int) (ref >>> 1);
+        return index < DICTIONARY.length ? DICTIONARY[index] : strings.get(index - DICTIONARY.length);
+      }
+      final int len = (int) (ref >>> 1);
+      final String value = buffer.getString(pos, pos + len, "UTF-8");
+      pos += len;
+      if (strings == null) {
+        strings = new ArrayList<>();
+      }
+      strings.add(value);
+      return value;
+    }
+
+    Object value() {
+      final byte type = buffer.getByte(pos++);
+      final int len;
+      switch (type) {
+        case TYPE_LONG:
+          return unzigzag(varlong());
+        case TYPE_INT:
+          return (int) unzigzag(varlong());
+        case TYPE_SHORT:
+          return (short) unzigzag(varlong());
+        case TYPE_BYTE:
+          return buffer.getByte(pos++);
+        case TYPE_DOUBLE:
+          pos += 8;
+          return buffer.getDouble(pos - 8);
+        case TYPE_FLOAT:
+          pos += 4;
+          return buffer.getFloat(pos - 4);
+        case TYPE_CHAR:
+          return (char) varint();
+        case TYPE_TRUE:
+          return true;
+        case TYPE_FALSE:
+          return false;
+        case TYPE_STRING:
+          len = varint();
+          pos += len;
+          return buffer.getString(pos - len, pos, "UTF-8");
+        case TYPE_BUFFER:
+          len = varint();
+          pos += len;
+          return buffer.getBuffer(pos - len, pos);
+        case TYPE_BYTES:
+          len = varint();
+          pos += len;
+          return buffer.getBytes(pos - len, pos);
+        case TYPE_CLUSTER_SERIALIZABLE:
+          final String className = string();
+          try {
+            final Class<?> clazz = Utils.getClassLoader().loadClass(className);
+            if (!ClusterSerializable.class.isAssignableFrom(clazz)) {
+              throw new ClassCastException(className + " is not assignable from ClusterSerializable");
+            }
+            final ClusterSerializable obj = (ClusterSerializable) clazz.getDeclaredConstructor().newInstance();
+            pos = obj.readFromBuffer(pos, buffer);
+            return obj;
+          } catch (ReflectiveOperationException e) {
+            throw new VertxException(e);
+          }
+        default:
+          throw new IllegalStateException("Invalid serialized type: " + type);
+      }
+    }
+  }
+}
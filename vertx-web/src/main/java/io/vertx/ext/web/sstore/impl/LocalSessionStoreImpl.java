@@ -28,9 +28,6 @@ import io.vertx.ext.web.sstore.AbstractSession;
 import io.vertx.ext.web.sstore.LocalSessionStore;
 import io.vertx.ext.web.sstore.SessionStore;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -46,8 +43,15 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
    */
   private static final String DEFAULT_SESSION_MAP_NAME = "vertx-web.sessions";
 
+  /**
+   * Name of the local map holding the expiry index of each session map, stores sharing a map share its index
+   */
+  private static final String EXPIRY_MAP_NAME = "__vertx.web.sessions.expiry";
+
 
   private LocalMap<String, Session> localMap;
+  // null when there is no reaper
+  private SessionExpiryIndex expiry;
   private long reaperInterval;
   private VertxContextPRNG random;
 
@@ -72,7 +76,19 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
     this.random = VertxContextPRNG.current(vertx);
     this.vertx = vertx;
     this.reaperInterval = options.getLong("reaperInterval", DEFAULT_REAPER_INTERVAL);
-    localMap = vertx.sharedData().getLocalMap(options.getString("mapName", DEFAULT_SESSION_MAP_NAME));
+    final String mapName = options.getString("mapName", DEFAULT_SESSION_MAP_NAME);
+    localMap = vertx.sharedData().getLocalMap(mapName);
+    if (reaperInterval != 0) {
+      final LocalMap<String, SessionExpiryIndex> indexes = vertx.sharedData().getLocalMap(EXPIRY_MAP_NAME);
+      expiry = indexes.get(mapName);
+      if (expiry == null) {
+        expiry = new SessionExpiryIndex(reaperInterval);
+        final SessionExpiryIndex existing = indexes.putIfAbsent(mapName, expiry);
+        if (existing != null) {
+          expiry = existing;
+        }
+      }
+    }
     setTimer();
 
     return this;
@@ -91,6 +107,9 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
   @Override
   public void delete(String id, Handler<AsyncResult<Void>> resultHandler) {
     localMap.remove(id);
+    if (expiry != null) {
+      expiry.unschedule(id);
+    }
     resultHandler.handle(Future.succeededFuture());
   }
 
@@ -109,12 +128,34 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
 
     newSession.incrementVersion();
     localMap.put(session.id(), session);
+    if (expiry != null) {
+      expiry.schedule(session);
+    }
+    resultHandler.handle(Future.succeededFuture());
+  }
+
+  @Override
+  public void touch(Session session, Handler<AsyncResult<Void>> resultHandler) {
+    Session stored = localMap.get(session.id());
+    if (stored == null) {
+      // it expired in the meantime
+      localMap.put(session.id(), session);
+      stored = session;
+    } else if (stored != session) {
+      stored.setAccessed();
+    }
+    if (expiry != null) {
+      expiry.schedule(stored);
+    }
     resultHandler.handle(Future.succeededFuture());
   }
 
   @Override
   public void clear(Handler<AsyncResult<Void>> resultHandler) {
     localMap.clear();
+    if (expiry != null) {
+      expiry.clear();
+    }
     resultHandler.handle(Future.succeededFuture());
   }
 
@@ -134,19 +175,9 @@ public class LocalSessionStoreImpl implements SessionStore, LocalSessionStore, H
 
   @Override
   public synchronized void handle(Long tid) {
-    long now = System.currentTimeMillis();
-
-    Set<String> toRemove = new HashSet<>();
+    // only the sessions whose expiration time is passed are visited
+    expiry.expire(localMap, System.currentTimeMillis());
 
-    localMap.forEach((String id, Session session) -> {
-      if (now - session.lastAccessed() > session.timeout()) {
-        toRemove.add(id);
-      }
-    });
-
-    for (String id: toRemove) {
-      localMap.remove(id);
-    }
     if (!closed) {
       setTimer();
     }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.impl;
+
+import io.vertx.core.ServiceHelper;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.ext.web.sstore.SessionCodec;
+
+/**
+ * The {@link SessionCodec}s known by this node, indexed by format.
+ * <p>
+ * Sessions are written with the legacy format unless a format is opted in, so the nodes of a cluster can be upgraded
+ * one by one: nodes of the previous versions only read the legacy format. Once every node reads the new formats, the
+ * written format is selected with the {@link #FORMAT_PROPERTY} system property.
+ */
+final class SessionCodecs {
+
+  private static final Logger log = LoggerFactory.getLogger(SessionCodecs.class);
+
+  /**
+   * The system property selecting the format sessions are written with.
+   */
+  static final String FORMAT_PROPERTY = "vertx.web.sessionFormat";
+
+  /**
+   * The format of the previous versions, it is not handled by a codec.
+   */
+  static final int LEGACY_FORMAT = 0;
+
+  private static final SessionCodec[] CODECS = new SessionCodec[128];
+  // null when sessions are written with the legacy format
+  private static final SessionCodec WRITER;
+
+  static {
+    final SessionCodec compact = new CompactSessionCodec();
+    CODECS[compact.format()] = compact;
+
+    for (SessionCodec codec : ServiceHelper.loadFactories(SessionCodec.class)) {
+      final int format = codec.format();
+      if (format <= CompactSessionCodec.FORMAT || format >= CODECS.length || CODECS[format] != null) {
+        // failing here would make the session classes unusable, the codec is ignored instead
+        log.error("Invalid session format " + format + " for " + codec.getClass().getName() + ", the codec is ignored");
+        continue;
+      }
+      CODECS[format] = codec;
+    }
+
+    WRITER = writer(System.getProperty(FORMAT_PROPERTY));
+  }
+
+  /**
+   * @return the codec selected by the value of {@link #FORMAT_PROPERTY}, {@code null} for the legacy format
+   */
+  private static SessionCodec writer(String property) {
+    if (property == null) {
+      return null;
+    }
+    int format;
+    try {
+      format = Integer.parseInt(property.trim());
+    } catch (NumberFormatException e) {
+      format = -1;
+    }
+    if (format == LEGACY_FORMAT) {
+      return null;
+    }
+    final SessionCodec codec = format > LEGACY_FORMAT && format < CODECS.length ? CODECS[format] : null;
+    if (codec == null) {
+      // failing here would make the session classes unusable, the safe format is kept instead
+      log.error("Invalid value of the " + FORMAT_PROPERTY + " system property: '" + property + "' is not the format of"
+        + " a known session codec, sessions are written with the legacy format (" + LEGACY_FORMAT + ")");
+    }
+    return codec;
+  }
+
+  private SessionCodecs() {
+  }
+
+  /**
+   * @return the codec to write sessions with, {@code null} for the legacy format
+   */
+  static SessionCodec writer() {
+    return WRITER;
+  }
+
+  /**
+   * @return the codec to read sessions written with the given format
+   */
+  static SessionCodec reader(int format) {
+    final SessionCodec codec = format > LEGACY_FORMAT && format < CODECS.length ? CODECS[format] : null;
+    if (codec == null) {
+      throw new IllegalStateException("Unknown session format: " + format);
+    }
+    return codec;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+package io.vertx.ext.web.sstore.impl;
+
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.web.Session;
+
+import java.util.*;
+
+/**
+ * Indexes the sessions of a local map by the time they expire, so the reaper only visits the sessions that may have
+ * expired instead of the whole map.
+ * <p>
+ * Sessions are kept in time buckets of {@code resolution} ms. A session is indexed once, when it is stored. When its
+ * bucket is due, a session that was accessed in the meantime is moved to the bucket of its new expiration time,
+ * otherwise it is removed from the map.
+ * <p>
+ * This class is thread-safe
+ */
+final class SessionExpiryIndex implements Shareable {
+
+  private final long resolution;
+
+  // guarded by this
+  private final TreeMap<Long, List<String>> buckets = new TreeMap<>();
+  private final Map<String, Long> scheduled = new HashMap<>();
+
+  SessionExpiryIndex(long resolution) {
+    this.resolution = resolution;
+  }
+
+  /**
+   * Indexes the session by the time it expires, unless it is already indexed.
+   */
+  void schedule(Session session) {
+    long deadline = session.lastAccessed() + session.timeout();
+    if (deadline < session.lastAccessed()) {
+      deadline = Long.MAX_VALUE;
+    }
+    // the bucket is only due once the deadline is passed
+    final long bucket = deadline / resolution + 1;
+
+    synchronized (this) {
+      // an indexed session accessed since is rescheduled when its bucket is due
+      if (scheduled.putIfAbsent(session.id(), bucket) == null) {
+        buckets.computeIfAbsent(bucket, k -> new ArrayList<>()).add(session.id());
+      }
+    }
+  }
+
+  /**
+   * Removes the session from the index, e.g. when it is deleted before it expires.
+   */
+  synchronized void unschedule(String id) {
+    final Long bucket = scheduled.remove(id);
+    if (bucket != null) {
+      final List<String> ids = buckets.get(bucket);
+      if (ids != null && ids.remove(id) && ids.isEmpty()) {
+        buckets.remove(bucket);
+      }
+    }
+  }
+
+  /**
+   * Removes the expired sessions from the map.
+   *
+   * @return the number of removed sessions
+   */
+  int expire(LocalMap<String, Session> sessions, long now) {
+    final List<String> due = new ArrayList<>();
+
+    synchronized (this) {
+      final Iterator<List<String>> it = buckets.headMap(now / resolution, true).values().iterator();
+      while (it.hasNext()) {
+        for (String id : it.next()) {
+          scheduled.remove(id);
+          due.add(id);
+        }
+        it.remove();
+      }
+    }
+
+    int removed = 0;
+    for (String id : due) {
+      final Session session = sessions.get(id);
+      if (session == null) {
+        // already deleted
+        continue;
+      }
+      if (now - session.lastAccessed() > session.timeout()) {
+        if (sessions.removeIfPresent(id, session)) {
+          removed++;
+        }
+      } else {
+        schedule(session);
+      }
+    }
+    return removed;
+  }
+
+  synchronized void clear() {
+    buckets.clear();
+    scheduled.clear();
+  }
+
+  synchronized int size() {
+    return scheduled.size();
+  }
+}
@@ -23,10 +23,11 @@ import io.vertx.core.shareddata.impl.ClusterSerializable;
 import io.vertx.ext.auth.VertxContextPRNG;
 import io.vertx.ext.web.impl.Utils;
 import io.vertx.ext.web.sstore.AbstractSession;
+import io.vertx.ext.web.sstore.SessionCodec;
 
-import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -50,6 +51,9 @@ public class SharedDataSessionImpl extends AbstractSession implements ClusterSer
   private static final byte TYPE_BYTES = 11;
   private static final byte TYPE_CLUSTER_SERIALIZABLE = 13;
 
+  // set on the first byte of the sessions written by a codec, the legacy format starts with the length of the id
+  private static final int CODEC_MARKER = 0x80;
+
   /**
    * Important note: This constructor (even though not referenced anywhere) is required for serialization purposes. Do
    * not remove.
@@ -68,11 +72,20 @@ public class SharedDataSessionImpl extends AbstractSession implements ClusterSer
 
   @Override
   public void writeToBuffer(Buffer buff) {
+    final SessionCodec codec = SessionCodecs.writer();
+    if (codec != null) {
+      buff.appendByte((byte) (CODEC_MARKER | codec.format()));
+    }
     byte[] bytes = id().getBytes(UTF8);
     buff.appendInt(bytes.length).appendBytes(bytes);
     buff.appendLong(timeout());
     buff.appendLong(lastAccessed());
     buff.appendInt(version());
+    if (codec != null) {
+      final Map<String, Object> data = peekData();
+      codec.encode(data == null ? Collections.emptyMap() : data, buff);
+      return;
+    }
     // use cache
     Buffer dataBuf = writeDataToBuffer();
     buff.appendBuffer(dataBuf);
@@ -80,6 +93,12 @@ public class SharedDataSessionImpl extends AbstractSession implements ClusterSer
 
   @Override
   public int readFromBuffer(int pos, Buffer buffer) {
+    SessionCodec codec = null;
+    final byte marker = buffer.getByte(pos);
+    if ((marker & CODEC_MARKER) != 0) {
+      codec = SessionCodecs.reader(marker & 0x7F);
+      pos++;
+    }
     int len = buffer.getInt(pos);
     pos += 4;
     byte[] bytes = buffer.getBytes(pos, pos + len);
@@ -91,6 +110,14 @@ public class SharedDataSessionImpl extends AbstractSession implements ClusterSer
     pos += 8;
     setVersion(buffer.getInt(pos));
     pos += 4;
+    if (codec != null) {
+      final Map<String, Object> data = new ConcurrentHashMap<>();
+      pos = codec.decode(buffer, pos, data);
+      if (!data.isEmpty()) {
+        setData(data);
+      }
+      return pos;
+    }
     int start = pos;
     pos = readDataFromBuffer(pos, buffer);
     int end = pos;
@@ -102,49 +129,13 @@ public class SharedDataSessionImpl extends AbstractSession implements ClusterSer
     if (isEmpty()) {
       buffer.appendInt(0);
     } else {
-      final Map<String, Object> data = data();
+      final Map<String, Object> data = peekData();
       buffer.appendInt(data.size());
       for (Map.Entry<String, Object> entry : data.entrySet()) {
         String key = entry.getKey();
         byte[] keyBytes = key.getBytes(UTF8);
         buffer.appendInt(keyBytes.length).appendBytes(keyBytes);
-        Object val = entry.getValue();
-        if (val instanceof Long) {
-          buffer.appendByte(TYPE_LONG).appendLong((long) val);
-        } else if (val instanceof Integer) {
-          buffer.appendByte(TYPE_INT).appendInt((int) val);
-        } else if (val instanceof Short) {
-          buffer.appendByte(TYPE_SHORT).appendShort((short) val);
-        } else if (val instanceof Byte) {
-          buffer.appendByte(TYPE_BYTE).appendByte((byte) val);
-        } else if (val instanceof Double) {
-          buffer.appendByte(TYPE_DOUBLE).appendDouble((double) val);
-        } else if (val instanceof Float) {
-          buffer.appendByte(TYPE_FLOAT).appendFloat((float) val);
-        } else if (val instanceof Character) {
-          buffer.appendByte(TYPE_CHAR).appendShort((short) ((Character) val).charValue());
-        } else if (val instanceof Boolean) {
-          buffer.appendByte(TYPE_BOOLEAN).appendByte((byte) ((boolean) val ? 1 : 0));
-        } else if (val instanceof String) {
-          byte[] bytes = ((String) val).getBytes(UTF8);
-          buffer.appendByte(TYPE_STRING).appendInt(bytes.length).appendBytes(bytes);
-        } else if (val instanceof Buffer) {
-          Buffer buff = (Buffer) val;
-          buffer.appendByte(TYPE_BUFFER).appendInt(buff.length()).appendBuffer(buff);
-        } else if (val instanceof byte[]) {
-          byte[] bytes = (byte[]) val;
-          buffer.appendByte(TYPE_BYTES).appendInt(bytes.length).appendBytes(bytes);
-        } else if (val instanceof ClusterSerializable) {
-          buffer.appendByte(TYPE_CLUSTER_SERIALIZABLE);
-          String className = val.getClass().getName();
-          byte[] classNameBytes = className.getBytes(UTF8);
-          buffer.appendInt(classNameBytes.length).appendBytes(classNameBytes);
-          ((ClusterSerializable) val).writeToBuffer(buffer);
-        } else {
-          if (val != null) {
-            throw new IllegalStateException("Invalid type for data in session: " + val.getClass());
-          }
-        }
+        writeValue(buffer, entry.getValue());
       }
     }
     return buffer;
@@ -163,88 +154,172 @@ public class SharedDataSessionImpl extends AbstractSession implements ClusterSer
           byte[] keyBytes = buffer.getBytes(pos, pos + keylen);
           pos += keylen;
           String key = new String(keyBytes, UTF8);
-          byte type = buffer.getByte(pos++);
-          Object val;
-          switch (type) {
-            case TYPE_LONG:
-              val = buffer.getLong(pos);
-              pos += 8;
-              break;
-            case TYPE_INT:
-              val = buffer.getInt(pos);
-              pos += 4;
-              break;
-            case TYPE_SHORT:
-              val = buffer.getShort(pos);
-              pos += 2;
-              break;
-            case TYPE_BYTE:
-              val = buffer.getByte(pos);
-              pos++;
-              break;
-            case TYPE_FLOAT:
-              val = buffer.getFloat(pos);
-              pos += 4;
-              break;
-            case TYPE_DOUBLE:
-              val = buffer.getDouble(pos);
-              pos += 8;
-              break;
-            case TYPE_CHAR:
-              short s = buffer.getShort(pos);
-              pos += 2;
-              val = (char) s;
-              break;
-            case TYPE_BOOLEAN:
-              byte b = buffer.getByte(pos);
-              pos++;
-              val = b == 1;
-              break;
-            case TYPE_STRING:
-              int len = buffer.getInt(pos);
-              pos += 4;
-              byte[] bytes = buffer.getBytes(pos, pos + len);
-              val = new String(bytes, UTF8);
-              pos += len;
-              break;
-            case TYPE_BUFFER:
-              len = buffer.getInt(pos);
-              pos += 4;
-              bytes = buffer.getBytes(pos, pos + len);
-              val = Buffer.buffer(bytes);
-              pos += len;
-              break;
-            case TYPE_BYTES:
-              len = buffer.getInt(pos);
-              pos += 4;
-              val = buffer.getBytes(pos, pos + len);
-              pos += len;
-              break;
-            case TYPE_CLUSTER_SERIALIZABLE:
-              int classNameLen = buffer.getInt(pos);
-              pos += 4;
-              byte[] classNameBytes = buffer.getBytes(pos, pos + classNameLen);
-              pos += classNameLen;
-              String className = new String(classNameBytes, UTF8);
-              Class<?> clazz = Utils.getClassLoader().loadClass(className);
-              if (!ClusterSerializable.class.isAssignableFrom(clazz)) {
-                throw new ClassCastException(new String(classNameBytes) + " is not assignable from ClusterSerializable");
-              }
-              ClusterSerializable obj = (ClusterSerializable) clazz.getDeclaredConstructor().newInstance();
-              pos = obj.readFromBuffer(pos, buffer);
-              val = obj;
-              break;
-            default:
-              throw new IllegalStateException("Invalid serialized type: " + type);
-          }
-          data.put(key, val);
+          pos = readValue(pos, buffer, key, data);
         }
         setData(data);
       }
       return pos;
-    } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+    } catch (ReflectiveOperationException e) {
+      throw new VertxException(e);
+    }
+  }
+
+  /**
+   * Serializes the value of a single key of the session data, with the same encoding as {@link #writeToBuffer(Buffer)}.
+   * This lets stores write the entries of a session separately.
+   *
+   * @param key  the key
+   * @param buffer  the buffer to append to
+   * @return {@code false} when there is no value for this key
+   */
+  public boolean writeValueToBuffer(String key, Buffer buffer) {
+    final Map<String, Object> data = peekData();
+    final Object val = data == null ? null : data.get(key);
+    if (val == null) {
+      return false;
+    }
+    writeValue(buffer, val);
+    return true;
+  }
+
+  /**
+   * Reads a value written with {@link #writeValueToBuffer(String, Buffer)} into the session data. The session is not
+   * considered as modified.
+   *
+   * @param key  the key
+   * @param pos  the position of the value in the buffer
+   * @param buffer  the buffer
+   * @return the position after the value
+   */
+  public int readValueFromBuffer(String key, int pos, Buffer buffer) {
+    Map<String, Object> data = peekData();
+    if (data == null) {
+      data = new ConcurrentHashMap<>();
+      setData(data);
+    }
+    try {
+      return readValue(pos, buffer, key, data);
+    } catch (ReflectiveOperationException e) {
       throw new VertxException(e);
     }
   }
+
+  private static void writeValue(Buffer buffer, Object val) {
+    if (val instanceof Long) {
+      buffer.appendByte(TYPE_LONG).appendLong((long) val);
+    } else if (val instanceof Integer) {
+      buffer.appendByte(TYPE_INT).appendInt((int) val);
+    } else if (val instanceof Short) {
+      buffer.appendByte(TYPE_SHORT).appendShort((short) val);
+    } else if (val instanceof Byte) {
+      buffer.appendByte(TYPE_BYTE).appendByte((byte) val);
+    } else if (val instanceof Double) {
+      buffer.appendByte(TYPE_DOUBLE).appendDouble((double) val);
+    } else if (val instanceof Float) {
+      buffer.appendByte(TYPE_FLOAT).appendFloat((float) val);
+    } else if (val instanceof Character) {
+      buffer.appendByte(TYPE_CHAR).appendShort((short) ((Character) val).charValue());
+    } else if (val instanceof Boolean) {
+      buffer.appendByte(TYPE_BOOLEAN).appendByte((byte) ((boolean) val ? 1 : 0));
+    } else if (val instanceof String) {
+      byte[] bytes = ((String) val).getBytes(UTF8);
+      buffer.appendByte(TYPE_STRING).appendInt(bytes.length).appendBytes(bytes);
+    } else if (val instanceof Buffer) {
+      Buffer buff = (Buffer) val;
+      buffer.appendByte(TYPE_BUFFER).appendInt(buff.length()).appendBuffer(buff);
+    } else if (val instanceof byte[]) {
+      byte[] bytes = (byte[]) val;
+      buffer.appendByte(TYPE_BYTES).appendInt(bytes.length).appendBytes(bytes);
+    } else if (val instanceof ClusterSerializable) {
+      buffer.appendByte(TYPE_CLUSTER_SERIALIZABLE);
+      String className = val.getClass().getName();
+      byte[] classNameBytes = className.getBytes(UTF8);
+      buffer.appendInt(classNameBytes.length).appendBytes(classNameBytes);
+      ((ClusterSerializable) val).writeToBuffer(buffer);
+    } else {
+      if (val != null) {
+        throw new IllegalStateException("Invalid type for data in session: " + val.getClass());
+      }
+    }
+  }
+
+  private static int readValue(int pos, Buffer buffer, String key, Map<String, Object> data) throws ReflectiveOperationException {
+    byte type = buffer.getByte(pos++);
+    Object val;
+    switch (type) {
+      case TYPE_LONG:
+        val = buffer.getLong(pos);
+        pos += 8;
+        break;
+      case TYPE_INT:
+        val = buffer.getInt(pos);
+        pos += 4;
+        break;
+      case TYPE_SHORT:
+        val = buffer.getShort(pos);
+        pos += 2;
+        break;
+      case TYPE_BYTE:
+        val = buffer.getByte(pos);
+        pos++;
+        break;
+      case TYPE_FLOAT:
+        val = buffer.getFloat(pos);
+        pos += 4;
+        break;
+      case TYPE_DOUBLE:
+        val = buffer.getDouble(pos);
+        pos += 8;
+        break;
+      case TYPE_CHAR:
+        short s = buffer.getShort(pos);
+        pos += 2;
+        val = (char) s;
+        break;
+      case TYPE_BOOLEAN:
+        byte b = buffer.getByte(pos);
+        pos++;
+        val = b == 1;
+        break;
+      case TYPE_STRING:
+        int len = buffer.getInt(pos);
+        pos += 4;
+        byte[] bytes = buffer.getBytes(pos, pos + len);
+        val = new String(bytes, UTF8);
+        pos += len;
+        break;
+      case TYPE_BUFFER:
+        len = buffer.getInt(pos);
+        pos += 4;
+        bytes = buffer.getBytes(pos, pos + len);
+        val = Buffer.buffer(bytes);
+        pos += len;
+        break;
+      case TYPE_BYTES:
+        len = buffer.getInt(pos);
+        pos += 4;
+        val = buffer.getBytes(pos, pos + len);
+        pos += len;
+        break;
+      case TYPE_CLUSTER_SERIALIZABLE:
+        int classNameLen = buffer.getInt(pos);
+        pos += 4;
+        byte[] classNameBytes = buffer.getBytes(pos, pos + classNameLen);
+        pos += classNameLen;
+        String className = new String(classNameBytes, UTF8);
+        Class<?> clazz = Utils.getClassLoader().loadClass(className);
+        if (!ClusterSerializable.class.isAssignableFrom(clazz)) {
+          throw new ClassCastException(new String(classNameBytes) + " is not assignable from ClusterSerializable");
+        }
+        ClusterSerializable obj = (ClusterSerializable) clazz.getDeclaredConstructor().newInstance();
+        pos = obj.readFromBuffer(pos, buffer);
+        val = obj;
+        break;
+      default:
+        throw new IllegalStateException("Invalid serialized type: " + type);
+    }
+    data.put(key, val);
+    return pos;
+  }
 }
 
@@ -2699,4 +2699,83 @@ public class RouterTest extends WebTestBase {
 
     testRequest(HttpMethod.MKCOL, "/", 200, "socks");
   }
+
+  @Test
+  public void testManyRoutesPreserveOrder() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      final int idx = i;
+      router.get("/route" + i).handler(rc -> rc.response().setStatusMessage("literal" + idx).end());
+    }
+    router.get("/route5/:param").handler(rc -> rc.response().setStatusMessage("param" + rc.pathParam("param")).end());
+    router.getWithRegex("\\/route7.*").handler(rc -> rc.response().setStatusMessage("regex").end());
+    router.get("/route7/*").handler(rc -> rc.response().setStatusMessage("prefix").end());
+    router.get("/route8/*").order(-1).handler(rc -> rc.response().setStatusMessage("first").end());
+
+    testRequest(HttpMethod.GET, "/route42", 200, "literal42");
+    testRequest(HttpMethod.GET, "/route42/", 200, "literal42");
+    testRequest(HttpMethod.GET, "/route5/foo", 200, "paramfoo");
+    testRequest(HttpMethod.GET, "/route7/foo", 200, "regex");
+    testRequest(HttpMethod.GET, "/route8/foo", 200, "first");
+    testRequest(HttpMethod.GET, "/route100", 404, "Not Found");
+    testRequest(HttpMethod.POST, "/route42", 405, "Method Not Allowed");
+  }
+
+  @Test
+  public void testPathChangedAfterHandler() throws Exception {
+    Route route = router.route().handler(rc -> rc.response().setStatusMessage("changed").end());
+    testRequest(HttpMethod.GET, "/foo", 200, "changed");
+    route.path("/bar");
+    testRequest(HttpMethod.GET, "/foo", 404, "Not Found");
+    testRequest(HttpMethod.GET, "/bar", 200, "changed");
+  }
+
+  @Test
+  public void testManyRoutesInSubRouter() throws Exception {
+    Router subRouter = Router.router(vertx);
+    for (int i = 0; i < 50; i++) {
+      final int idx = i;
+      subRouter.get("/item" + i).handler(rc -> rc.response().setStatusMessage("item" + idx).end());
+    }
+    subRouter.get("/").handler(rc -> rc.response().setStatusMessage("root").end());
+    router.mountSubRouter("/api", subRouter);
+
+    testRequest(HttpMethod.GET, "/api/item13", 200, "item13");
+    testRequest(HttpMethod.GET, "/api", 200, "root");
+    testRequest(HttpMethod.GET, "/api/", 200, "root");
+    testRequest(HttpMethod.GET, "/api/item50", 404, "Not Found");
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    CountingRouterMetrics metrics = new CountingRouterMetrics();
+    router.metrics(metrics);
+    Route first = router.route("/foo*").handler(RoutingContext::next);
+    Route second = router.get("/foo").handler(rc -> rc.response().end());
+    Route failing = router.get("/fail").handler(rc -> {
+      throw new RuntimeException("boom");
+    }).failureHandler(rc -> rc.response().setStatusCode(500).end());
+
+    testRequest(HttpMethod.GET, "/foo", 200, "OK");
+    testRequest(HttpMethod.GET, "/bar", 404, "Not Found");
+    testRequest(HttpMethod.POST, "/foo", 405, "Method Not Allowed");
+    testRequest(HttpMethod.GET, "/fail", 500, "Internal Server Error");
+
+    assertEquals(2, metrics.route(first).matches());
+    assertEquals(1, metrics.route(second).matches());
+    assertEquals(1, metrics.route(second).handlerCount());
+    assertEquals(1, metrics.route(failing).handlerCount());
+    assertEquals(1, metrics.route(failing).failureHandlerCount());
+    assertTrue(metrics.route(second).matchAttempts() >= 2);
+    assertEquals(1, metrics.noMatchCount(404));
+    assertEquals(1, metrics.noMatchCount(405));
+
+    second.remove();
+    assertFalse(metrics.routes().stream().anyMatch(counters -> counters.route() == second));
+    router.clear();
+    assertTrue(metrics.routes().isEmpty());
+
+    router.metrics(null);
+    testRequest(HttpMethod.GET, "/bar", 404, "Not Found");
+    assertEquals(1, metrics.noMatchCount(404));
+  }
 }
@@ -22,6 +22,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.FileUpload;
 import io.vertx.ext.web.Route;
@@ -214,6 +215,71 @@ public class BodyHandlerTest extends WebTestBase {
     }, 413, "Request Entity Too Large", null);
   }
 
+  @Test
+  public void testBodyChunks() throws Exception {
+    JsonArray json = new JsonArray();
+    for (int i = 0; i < 10000; i++) {
+      json.add(new JsonObject().put("id", i).put("name", "item-" + i));
+    }
+    Buffer buff = json.toBuffer();
+    router.route().handler(rc -> {
+      assertEquals(json, rc.getBodyAsJsonArray());
+      Buffer body = rc.getBody();
+      assertEquals(buff, body);
+      // the chunks are only made contiguous once
+      assertSame(body, rc.getBody());
+      rc.response().end();
+    });
+    testRequest(HttpMethod.POST, "/", req -> {
+      req.setChunked(true);
+      for (int pos = 0; pos < buff.length(); pos += 4096) {
+        req.write(buff.getBuffer(pos, Math.min(pos + 4096, buff.length())));
+      }
+    }, 200, "OK", null);
+  }
+
+  @Test
+  public void testBodySpilledToDisk() throws Exception {
+    String uploadsDirectory = tempUploads.newFolder().getPath();
+    router.clear();
+    router.route().handler(BodyHandler.create()
+      .setBodySpillThreshold(1000)
+      .setDeleteUploadedFilesOnEnd(true)
+      .setUploadsDirectory(uploadsDirectory));
+    Buffer buff = TestUtils.randomBuffer(100000);
+    router.route().handler(rc -> {
+      String bodyFileName = rc.getBodyFileName();
+      assertNotNull(bodyFileName);
+      assertTrue(bodyFileName.startsWith(uploadsDirectory + File.separator));
+      assertEquals(buff, vertx.fileSystem().readFileBlocking(bodyFileName));
+      // the body is never loaded in memory implicitly
+      assertNull(rc.getBody());
+      assertNull(rc.getBodyAsString());
+      rc.response().end();
+    });
+    testRequest(HttpMethod.POST, "/", req -> {
+      req.setChunked(true);
+      req.write(buff);
+    }, 200, "OK", null);
+    assertWaitUntil(() -> vertx.fileSystem().readDirBlocking(uploadsDirectory).isEmpty());
+  }
+
+  @Test
+  public void testBodyUnderSpillThreshold() throws Exception {
+    router.clear();
+    router.route().handler(BodyHandler.create().setBodySpillThreshold(1000));
+    Buffer buff = TestUtils.randomBuffer(1000);
+    router.route().handler(rc -> {
+      assertNull(rc.getBodyFileName());
+      assertEquals(buff, rc.getBody());
+      rc.response().end();
+    });
+    testRequest(HttpMethod.POST, "/", req -> {
+      req.setChunked(true);
+      req.write(buff);
+    }, 200, "OK", null);
+  }
+
   @Test
   public void testFileUploadSmallUpload() throws Exception {
     testFileUpload(BodyHandler.DEFAULT_UPLOADS_DIRECTORY, 50);
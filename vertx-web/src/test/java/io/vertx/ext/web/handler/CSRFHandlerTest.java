@@ -101,6 +101,28 @@ public class CSRFHandlerTest extends WebTestBase {
     }, null, 200, "OK", null);
   }
 
+  @Test
+  public void testPostWithTamperedToken() throws Exception {
+
+    router.route("/xsrf").handler(CSRFHandler.create(vertx, "Abracadabra"));
+    router.route("/xsrf").handler(rc -> rc.response().end());
+
+    testRequest(HttpMethod.GET, "/xsrf", null, resp -> {
+      List<String> cookies = resp.headers().getAll("set-cookie");
+      String cookie = cookies.get(0);
+      tmpCookie = cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';'));
+    }, 200, "OK", null);
+
+    // extend the validity of the token without signing it again
+    String[] tokens = tmpCookie.split("\\.");
+    String tampered = tokens[0] + "." + (Long.parseLong(tokens[1]) + 1) + "." + tokens[2];
+
+    testRequest(HttpMethod.POST, "/xsrf", req -> {
+      req.putHeader(CSRFHandler.DEFAULT_HEADER_NAME, tampered);
+      req.putHeader("Cookie", CSRFHandler.DEFAULT_COOKIE_NAME + "=" + tampered);
+    }, null, 403, "Forbidden", null);
+  }
+
   @Test
   public void testPostWithExpiredCookie() throws Exception {
     router.route().handler(CSRFHandler.create(vertx, "Abracadabra").setTimeout(1));
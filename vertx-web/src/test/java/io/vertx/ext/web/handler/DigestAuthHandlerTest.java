@@ -17,6 +17,7 @@
 package io.vertx.ext.web.handler;
 
 import io.vertx.core.Handler;
+import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.ext.auth.htdigest.HtdigestAuth;
 import io.vertx.ext.web.RoutingContext;
@@ -33,7 +34,8 @@ import java.util.concurrent.atomic.AtomicReference;
 public class DigestAuthHandlerTest extends WebTestBase {
 
   private static final MessageDigest MD5;
-  private static final String DEFAULT_NONCE_MAP_NAME = "htdigest.nonces";
+
+  private String[] lastChallenge;
 
   static {
     try {
@@ -49,23 +51,24 @@ public class DigestAuthHandlerTest extends WebTestBase {
   }
 
   @Test
-  public void checkNoncesCleanup() throws Exception {
+  public void testExpiredNonce() throws Exception {
     router.clear();
     HtdigestAuth authProvider = HtdigestAuth.create(vertx);
-    /* set nonceExpireTimeout to a negative value so the cached nonces must be deleted as soon as a new request 
-     * is done
-     */
+    // set nonceExpireTimeout to a negative value so the nonces are expired as soon as they are issued
     router.route("/dir/*").handler(DigestAuthHandler.create(vertx, authProvider, -100));
-    int initialNoncesSize = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME).size();
-    /* Now make some new requests without authentication: for each new request a new nonce is generated
-     * and the old one is expired so the final nonces size must be equal to the initial one + 1
-     */
-    int numRequests = 5;
-    for (int i = 0; i < numRequests; ++i) {
-      testRequest(HttpMethod.GET, "/dir/index.html", null, null, 401, "Unauthorized", null);
-    }
-    int finalNoncesSize = vertx.sharedData().getLocalMap(DEFAULT_NONCE_MAP_NAME).size();
-    assertEquals(initialNoncesSize + 1, finalNoncesSize);
+    router.route("/dir/index.html").handler(rc -> rc.response().end("Welcome to the protected resource!"));
+
+    String[] challenge = challenge("testrealm@host.com");
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> authorize(req, challenge, "00000001"), null, 401, "Unauthorized", null);
+  }
+
+  @Test
+  public void testReplayedNonceCount() throws Exception {
+    doLogin("testrealm@host.com");
+    // the nonce count of the previous request cannot be used again
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> authorize(req, lastChallenge, "00000001"), null, 401, "Unauthorized", null);
+    // but the next one can
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> authorize(req, lastChallenge, "00000002"), null, 200, "OK", "Welcome to the protected resource!");
   }
 
   private void doLogin(String realm) throws Exception {
@@ -81,6 +84,19 @@ public class DigestAuthHandlerTest extends WebTestBase {
 
     router.route("/dir/index.html").handler(handler);
 
+    lastChallenge = challenge(realm);
+
+    // Now try again with credentials
+    testRequest(HttpMethod.GET, "/dir/index.html", req -> authorize(req, lastChallenge, "00000001"), resp -> {
+      String wwwAuth = resp.headers().get("WWW-Authenticate");
+      assertNull(wwwAuth);
+    }, 200, "OK", "Welcome to the protected resource!");
+  }
+
+  /**
+   * @return the nonce and opaque of the challenge
+   */
+  private String[] challenge(String realm) throws Exception {
     final AtomicReference<String> nonce = new AtomicReference<>();
     final AtomicReference<String> opaque = new AtomicReference<>();
 
@@ -95,16 +111,14 @@ public class DigestAuthHandlerTest extends WebTestBase {
       opaque.set(wwwAuth.substring(pos, endOfVariable(wwwAuth, pos, '\"')));
     }, 401, "Unauthorized", null);
 
-    // Now try again with credentials
-    testRequest(HttpMethod.GET, "/dir/index.html", req -> {
-      // rebuild the response value
-      String response = md5("939e7578ed9e3c518a452acee763bce9:" + nonce.get() + ":00000001:0a4f113b:auth:39aff3a2bab6126f332b942af96d3366");
-      // create the browser header
-      req.putHeader("Authorization", "Digest username=\"Mufasa\", realm=\"testrealm@host.com\", nonce=\"" + nonce.get() + "\", uri=\"/dir/index.html\", qop=auth, nc=00000001, cnonce=\"0a4f113b\", response=\"" + response + "\", opaque=\"" + opaque.get() + "\"");
-    }, resp -> {
-      String wwwAuth = resp.headers().get("WWW-Authenticate");
-      assertNull(wwwAuth);
-    }, 200, "OK", "Welcome to the protected resource!");
+    return new String[] { nonce.get(), opaque.get() };
+  }
+
+  private static void authorize(HttpClientRequest req, String[] challenge, String nc) {
+    // rebuild the response value
+    String response = md5("939e7578ed9e3c518a452acee763bce9:" + challenge[0] + ":" + nc + ":0a4f113b:auth:39aff3a2bab6126f332b942af96d3366");
+    // create the browser header
+    req.putHeader("Authorization", "Digest username=\"Mufasa\", realm=\"testrealm@host.com\", nonce=\"" + challenge[0] + "\", uri=\"/dir/index.html\", qop=auth, nc=" + nc + ", cnonce=\"0a4f113b\", response=\"" + response + "\", opaque=\"" + challenge[1] + "\"");
   }
 
   private static int endOfVariable(String header, int pos, char delim) {
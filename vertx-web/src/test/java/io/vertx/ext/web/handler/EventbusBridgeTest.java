@@ -34,6 +34,8 @@ import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.test.core.TestUtils;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -551,6 +553,94 @@ public class EventbusBridgeTest extends WebTestBase {
     testUnregister("someaddress");
   }
 
+  @Test
+  public void testPublishToManySockets() throws Exception {
+    sockJSHandler.bridge(allAccessOptions);
+    int sockets = 3;
+    CountDownLatch registered = new CountDownLatch(sockets);
+    CountDownLatch received = new CountDownLatch(sockets + sockets - 1);
+    for (int i = 0; i < sockets; i++) {
+      boolean unregister = i == 0;
+      client.webSocket(websocketURI, onSuccess(ws -> {
+        JsonObject msg = new JsonObject().put("type", "register").put("address", addr);
+        ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(msg.encode(), true));
+        AtomicInteger count = new AtomicInteger();
+        ws.handler(buff -> {
+          JsonObject rec = new JsonObject(buff.toString());
+          assertEquals("rec", rec.getString("type"));
+          assertEquals(addr, rec.getString("address"));
+          if (count.incrementAndGet() == 1) {
+            assertEquals("foo", rec.getString("body"));
+            if (unregister) {
+              JsonObject msg2 = new JsonObject().put("type", "unregister").put("address", addr);
+              ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(msg2.encode(), true));
+            }
+          } else {
+            assertFalse(unregister);
+            assertEquals("bar", rec.getString("body"));
+          }
+          received.countDown();
+        });
+        registered.countDown();
+      }));
+    }
+    awaitLatch(registered);
+    // Wait a bit to allow the handlers to be setup on the server
+    vertx.setTimer(200, tid -> {
+      vertx.eventBus().publish(addr, "foo");
+      vertx.setTimer(200, tid2 -> vertx.eventBus().publish(addr, "bar"));
+    });
+    awaitLatch(received);
+  }
+
+  @Test
+  public void testSendToManySockets() throws Exception {
+    sockJSHandler.bridge(allAccessOptions);
+    int sockets = 3;
+    int messages = 6;
+    CountDownLatch registered = new CountDownLatch(sockets);
+    AtomicInteger total = new AtomicInteger();
+    List<AtomicInteger> counts = new ArrayList<>();
+    for (int i = 0; i < sockets; i++) {
+      AtomicInteger count = new AtomicInteger();
+      counts.add(count);
+      client.webSocket(websocketURI, onSuccess(ws -> {
+        JsonObject msg = new JsonObject().put("type", "register").put("address", addr);
+        ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(msg.encode(), true));
+        ws.handler(buff -> {
+          JsonObject rec = new JsonObject(buff.toString());
+          assertEquals("rec", rec.getString("type"));
+          count.incrementAndGet();
+          total.incrementAndGet();
+          if (rec.getString("replyAddress") != null) {
+            JsonObject reply = new JsonObject().put("type", "send").put("address", rec.getString("replyAddress")).put("body", "pong");
+            ws.writeFrame(io.vertx.core.http.WebSocketFrame.textFrame(reply.encode(), true));
+          }
+        });
+        registered.countDown();
+      }));
+    }
+    awaitLatch(registered);
+    // Wait a bit to allow the handlers to be setup on the server
+    vertx.setTimer(200, tid -> {
+      for (int i = 0; i < messages; i++) {
+        vertx.eventBus().send(addr, "foo");
+      }
+      vertx.eventBus().request(addr, "ping", onSuccess(reply -> {
+        assertEquals("pong", reply.body());
+        // each message was delivered to a single socket, in turn
+        vertx.setTimer(200, tid2 -> {
+          assertEquals(messages + 1, total.get());
+          for (AtomicInteger count : counts) {
+            assertTrue(count.get() >= messages / sockets);
+          }
+          testComplete();
+        });
+      }));
+    });
+    await();
+  }
+
   @Test
   public void testInvalidType() throws Exception {
     sockJSHandler.bridge(allAccessOptions);
@@ -642,6 +732,21 @@ public class EventbusBridgeTest extends WebTestBase {
       "access_denied");
   }
 
+  @Test
+  public void testSendPermittedFirstDeclaredWins() throws Exception {
+    JsonObject match = new JsonObject().put("fib", "wib");
+    sockJSHandler.bridge(defaultOptions.addInboundPermitted(new PermittedOptions().setAddress(addr).setMatch(match)).
+      addInboundPermitted(new PermittedOptions().setAddressRegex("some.+").setRequiredAuthority("admin")).
+      addInboundPermitted(new PermittedOptions().setAddress(addr)));
+    testSend(addr, match);
+    testError(new JsonObject().put("type", "send").put("address", addr).put("body", "blah"),
+      "not_logged_in");
+    // the decision of the address is reused
+    testError(new JsonObject().put("type", "send").put("address", addr).put("body", "blah"),
+      "not_logged_in");
+    testSend(addr, match);
+  }
+
   @Test
   public void testSendPermittedStructureMatch() throws Exception {
     JsonObject match = new JsonObject().put("fib", "wib").put("oop", 12);
@@ -34,6 +34,8 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 import static java.util.concurrent.TimeUnit.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -167,6 +169,30 @@ public abstract class SessionHandlerTestBase extends WebTestBase {
 		testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
 	}
 
+	@Test
+	public void testUnmodifiedSessionIsTouched() throws Exception {
+		SessionStore spy = spy(store);
+		router.route().handler(SessionHandler.create(spy));
+		AtomicInteger requestCount = new AtomicInteger();
+		router.route().handler(rc -> {
+			Session sess = rc.session();
+			if (requestCount.getAndIncrement() == 0) {
+				sess.put("foo", "bar");
+			} else {
+				// read only
+				assertEquals("bar", sess.get("foo"));
+			}
+			rc.response().end();
+		});
+		AtomicReference<String> rSetCookie = new AtomicReference<>();
+		testRequest(HttpMethod.GET, "/", null, resp -> rSetCookie.set(resp.headers().get("set-cookie")), 200, "OK", null);
+		verify(spy, timeout(5000).times(1)).put(any(Session.class), any());
+		testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+		testRequest(HttpMethod.GET, "/", req -> req.putHeader("cookie", rSetCookie.get()), null, 200, "OK", null);
+		verify(spy, timeout(5000).times(2)).touch(any(Session.class), any());
+		verify(spy, times(1)).put(any(Session.class), any());
+	}
+
 	@Test
 	public void testSessionExpires() throws Exception {
 		long timeout = 1000;
@@ -16,6 +16,7 @@
 
 package io.vertx.ext.web.handler;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.*;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.net.PemKeyCertOptions;
@@ -518,6 +519,151 @@ public class StaticHandlerTest extends WebTestBase {
 
   }
 
+  @Test
+  public void testContentCache() throws Exception {
+    File webroot = new File("target/.vertx/webroot"), pageFile = new File(webroot, "content-cache.html");
+    webroot.mkdirs();
+    StringBuilder html = new StringBuilder("<html><body>");
+    for (int i = 0; i < 100; i++) {
+      html.append("<p>Cached content</p>");
+    }
+    html.append("</body></html>");
+    Files.write(pageFile.toPath(), html.toString().getBytes());
+    String page = '/' + pageFile.getName();
+
+    stat.setWebRoot(webroot.getPath());
+    stat.setMaxContentCacheSize(1024 * 1024);
+
+    testRequest(HttpMethod.GET, page, 200, "OK", html.toString());
+    // served from memory, the file is not accessed anymore
+    pageFile.delete();
+    testRequest(HttpMethod.GET, page, null, res -> assertEquals("accept-encoding", res.getHeader("Vary")), 200, "OK", html.toString());
+    testRequest(HttpMethod.GET, page, req -> req.putHeader(HttpHeaders.ACCEPT_ENCODING, "gzip"), res -> {
+      assertEquals("gzip", res.getHeader(HttpHeaders.CONTENT_ENCODING));
+      assertTrue(Integer.parseInt(res.getHeader(HttpHeaders.CONTENT_LENGTH)) < html.length());
+    }, 200, "OK", null);
+  }
+
+  @Test
+  public void testContentCacheETag() throws Exception {
+    File webroot = new File("target/.vertx/webroot"), pageFile = new File(webroot, "content-cache-etag.html");
+    webroot.mkdirs();
+    StringBuilder html = new StringBuilder("<html><body>");
+    for (int i = 0; i < 100; i++) {
+      html.append("<p>Tagged content</p>");
+    }
+    html.append("</body></html>");
+    Files.write(pageFile.toPath(), html.toString().getBytes());
+    String page = '/' + pageFile.getName();
+
+    stat.setWebRoot(webroot.getPath());
+    stat.setMaxContentCacheSize(1024 * 1024);
+    stat.setEnableETag(true);
+
+    AtomicReference<String> etag = new AtomicReference<>();
+    testRequest(HttpMethod.GET, page, null, res -> {
+      etag.set(res.getHeader(HttpHeaders.ETAG));
+      assertNotNull(etag.get());
+      assertTrue(etag.get().startsWith("\""));
+    }, 200, "OK", html.toString());
+    // the identity representation keeps the strong tag
+    testRequest(HttpMethod.GET, page, null, res -> {
+      assertNull(res.getHeader(HttpHeaders.CONTENT_ENCODING));
+      assertEquals(etag.get(), res.getHeader(HttpHeaders.ETAG));
+    }, 200, "OK", html.toString());
+    // the gzip representation has other bytes, the tag is only a weak validator of it
+    testRequest(HttpMethod.GET, page, req -> req.putHeader(HttpHeaders.ACCEPT_ENCODING, "gzip"), res -> {
+      assertEquals("gzip", res.getHeader(HttpHeaders.CONTENT_ENCODING));
+      assertEquals("W/" + etag.get(), res.getHeader(HttpHeaders.ETAG));
+    }, 200, "OK", null);
+  }
+
+  @Test
+  public void testETag() throws Exception {
+    File webroot = new File("target/.vertx/webroot"), pageFile = new File(webroot, "etag.html");
+    webroot.mkdirs();
+    Files.write(pageFile.toPath(), "<html><body>Tagged</body></html>".getBytes());
+    String page = '/' + pageFile.getName();
+
+    stat.setWebRoot(webroot.getPath());
+    stat.setFilesReadOnly(false);
+    stat.setCacheEntryTimeout(1);
+    stat.setEnableETag(true);
+
+    AtomicReference<String> etag = new AtomicReference<>();
+    testRequest(HttpMethod.GET, page, null, res -> {
+      etag.set(res.getHeader(HttpHeaders.ETAG));
+      assertNotNull(etag.get());
+      assertTrue(etag.get().startsWith("\""));
+    }, 200, "OK", "<html><body>Tagged</body></html>");
+    // touching the file keeps the tag valid
+    pageFile.setLastModified(pageFile.lastModified() + 10000);
+    Thread.sleep(2);
+    testRequest(HttpMethod.GET, page, req -> {
+      req.putHeader(HttpHeaders.IF_NONE_MATCH, etag.get());
+      req.putHeader(HttpHeaders.IF_MODIFIED_SINCE, Utils.formatRFC1123DateTime(0));
+    }, res -> assertEquals(etag.get(), res.getHeader(HttpHeaders.ETAG)), 304, "Not Modified", null);
+    // a new content gets a new tag
+    Files.write(pageFile.toPath(), "<html><body>Retagged</body></html>".getBytes());
+    Thread.sleep(2);
+    testRequest(HttpMethod.GET, page, req -> req.putHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag.get()), res -> {
+      assertNotNull(res.getHeader(HttpHeaders.ETAG));
+      assertFalse(etag.get().equals(res.getHeader(HttpHeaders.ETAG)));
+    }, 200, "OK", "<html><body>Retagged</body></html>");
+  }
+
+  @Test
+  public void testETagLargeFile() throws Exception {
+    File webroot = new File("target/.vertx/webroot"), largeFile = new File(webroot, "etag-large.bin");
+    webroot.mkdirs();
+    Files.write(largeFile.toPath(), new byte[2 * 1024 * 1024]);
+    String page = '/' + largeFile.getName();
+
+    stat.setWebRoot(webroot.getPath());
+    stat.setFilesReadOnly(false);
+    stat.setEnableETag(true);
+
+    // large files are not hashed, the tag is derived from the size and modification time
+    String etag = "\"" + Long.toHexString(largeFile.length()) + "-" + Long.toHexString(largeFile.lastModified()) + "\"";
+    testRequest(HttpMethod.GET, page, null, res -> assertEquals(etag, res.getHeader(HttpHeaders.ETAG)), 200, "OK", null);
+    testRequest(HttpMethod.GET, page, req -> req.putHeader(HttpHeaders.IF_NONE_MATCH, etag),
+      res -> assertEquals(etag, res.getHeader(HttpHeaders.ETAG)), 304, "Not Modified", null);
+  }
+
+  @Test
+  public void testPrecompressedFiles() throws Exception {
+    File webroot = new File("target/.vertx/webroot");
+    webroot.mkdirs();
+    Files.write(new File(webroot, "precompressed.js").toPath(), "var plain;".getBytes());
+    Files.write(new File(webroot, "precompressed.js.gz").toPath(), "gzip bytes".getBytes());
+    Files.write(new File(webroot, "precompressed.js.br").toPath(), "brotli bytes".getBytes());
+
+    stat.setWebRoot(webroot.getPath());
+    stat.setEnablePrecompressedFiles(true);
+
+    testRequestBuffer(HttpMethod.GET, "/precompressed.js", null, res -> {
+      assertNull(res.getHeader(HttpHeaders.CONTENT_ENCODING));
+      assertEquals("accept-encoding", res.getHeader("Vary"));
+    }, 200, "OK", Buffer.buffer("var plain;"));
+    testRequestBuffer(HttpMethod.GET, "/precompressed.js", req -> req.putHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"), res -> {
+      assertEquals("gzip", res.getHeader(HttpHeaders.CONTENT_ENCODING));
+      assertEquals("application/javascript", res.getHeader(HttpHeaders.CONTENT_TYPE));
+    }, 200, "OK", Buffer.buffer("gzip bytes"));
+    testRequestBuffer(HttpMethod.GET, "/precompressed.js", req -> req.putHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"), res -> {
+      assertEquals("br", res.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }, 200, "OK", Buffer.buffer("brotli bytes"));
+    testRequestBuffer(HttpMethod.GET, "/precompressed.js", req -> req.putHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, br;q=0.5"), res -> {
+      assertEquals("gzip", res.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }, 200, "OK", Buffer.buffer("gzip bytes"));
+    testRequestBuffer(HttpMethod.GET, "/precompressed.js", req -> {
+      req.putHeader(HttpHeaders.ACCEPT_ENCODING, "br");
+      req.putHeader("Range", "bytes=0-5");
+    }, res -> {
+      assertEquals("br", res.getHeader(HttpHeaders.CONTENT_ENCODING));
+      assertEquals("bytes 0-5/12", res.getHeader(HttpHeaders.CONTENT_RANGE));
+    }, 206, "Partial Content", Buffer.buffer("brotli"));
+  }
+
   @Test
   public void testDirectoryListingText() throws Exception {
     stat.setDirectoryListing(true);
@@ -758,6 +904,63 @@ public class StaticHandlerTest extends WebTestBase {
     }, 206, "Partial Content", null);
   }
 
+  @Test
+  public void testMultipleRanges() throws Exception {
+    stat.setEnableRangeSupport(true);
+    byte[] data = Files.readAllBytes(new File("src/test/resources/webroot/somedir/range.jpg").toPath());
+    testRequest(HttpMethod.GET, "/somedir/range.jpg", req -> req.headers().set("Range", "bytes=0-9, -10"), res -> {
+      String contentType = res.headers().get("Content-Type");
+      assertTrue(contentType.startsWith("multipart/byteranges; boundary="));
+      String boundary = contentType.substring(contentType.indexOf('=') + 1);
+      res.bodyHandler(body -> {
+        assertEquals(Long.parseLong(res.headers().get("Content-Length")), body.length());
+        Buffer expected = Buffer.buffer()
+          .appendString("\r\n--" + boundary + "\r\ncontent-type: image/jpeg\r\ncontent-range: bytes 0-9/15783\r\n\r\n")
+          .appendBytes(data, 0, 10)
+          .appendString("\r\n--" + boundary + "\r\ncontent-type: image/jpeg\r\ncontent-range: bytes 15773-15782/15783\r\n\r\n")
+          .appendBytes(data, 15773, 10)
+          .appendString("\r\n--" + boundary + "--\r\n");
+        assertEquals(expected, body);
+        testComplete();
+      });
+    }, 206, "Partial Content", null);
+    await();
+  }
+
+  @Test
+  public void testOverlappingRangesAreCoalesced() throws Exception {
+    stat.setEnableRangeSupport(true);
+    testRequest(HttpMethod.GET, "/somedir/range.jpg", req -> req.headers().set("Range", "bytes=500-999,0-599"), res -> {
+      assertEquals("1000", res.headers().get("Content-Length"));
+      assertEquals("bytes 0-999/15783", res.headers().get("Content-Range"));
+    }, 206, "Partial Content", null);
+  }
+
+  @Test
+  public void testSuffixRange() throws Exception {
+    stat.setEnableRangeSupport(true);
+    testRequest(HttpMethod.GET, "/somedir/range.jpg", req -> req.headers().set("Range", "bytes=-783"), res -> {
+      assertEquals("783", res.headers().get("Content-Length"));
+      assertEquals("bytes 15000-15782/15783", res.headers().get("Content-Range"));
+    }, 206, "Partial Content", null);
+  }
+
+  @Test
+  public void testIfRange() throws Exception {
+    stat.setEnableRangeSupport(true);
+    AtomicReference<String> lastModified = new AtomicReference<>();
+    testRequest(HttpMethod.HEAD, "/somedir/range.jpg", null, res -> lastModified.set(res.headers().get("Last-Modified")), 200, "OK", null);
+    testRequest(HttpMethod.GET, "/somedir/range.jpg", req -> {
+      req.headers().set("Range", "bytes=0-999");
+      req.headers().set("If-Range", lastModified.get());
+    }, res -> assertEquals("bytes 0-999/15783", res.headers().get("Content-Range")), 206, "Partial Content", null);
+    // the file changed since, the whole file is sent
+    testRequest(HttpMethod.GET, "/somedir/range.jpg", req -> {
+      req.headers().set("Range", "bytes=0-999");
+      req.headers().set("If-Range", Utils.formatRFC1123DateTime(toDateTime(lastModified.get()) - 1000));
+    }, res -> assertEquals("15783", res.headers().get("Content-Length")), 200, "OK", null);
+  }
+
   @Test
   public void testRangeAwareRequestBodyForDisabledRangeSupport() throws Exception {
     stat.setEnableRangeSupport(false);
@@ -34,6 +34,7 @@ import io.vertx.test.core.TestUtils;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -400,6 +401,25 @@ public class SockJSHandlerTest extends WebTestBase {
     await();
   }
 
+  @Test
+  public void testHeartbeats() {
+    router.mountSubRouter("/heartbeat", SockJSHandler
+      .create(vertx, new SockJSHandlerOptions().setHeartbeatInterval(100))
+      .socketHandler(sock -> {})
+    );
+
+    List<String> frames = new ArrayList<>();
+    client.webSocket("/heartbeat/000/000/websocket", onSuccess(ws -> ws.textMessageHandler(msg -> {
+      frames.add(msg);
+      if (frames.size() == 3) {
+        assertEquals(Arrays.asList("o", "h", "h"), frames);
+        testComplete();
+        ws.close();
+      }
+    })));
+    await();
+  }
+
   @Test
   public void testInvalidMessageCode() {
     router.mountSubRouter("/ws-timeout", SockJSHandler
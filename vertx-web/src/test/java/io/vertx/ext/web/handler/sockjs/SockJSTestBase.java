@@ -39,6 +39,7 @@ abstract class SockJSTestBase extends VertxTestBase {
 
   int numServers = 1;
   HttpClient client;
+  SockJSHandlerOptions options;
   Consumer<Router> preSockJSHandlerSetup;
   Supplier<Handler<SockJSSocket>> socketHandler;
 
@@ -46,6 +47,7 @@ abstract class SockJSTestBase extends VertxTestBase {
   public void setUp() throws Exception {
     super.setUp();
     client = vertx.createHttpClient(new HttpClientOptions().setDefaultPort(8080).setKeepAlive(false));
+    options = new SockJSHandlerOptions().setHeartbeatInterval(2000);
   }
 
   void startServers() throws Exception {
@@ -64,7 +66,6 @@ abstract class SockJSTestBase extends VertxTestBase {
           preSockJSHandlerSetup.accept(router);
         }
 
-        SockJSHandlerOptions options = new SockJSHandlerOptions().setHeartbeatInterval(2000);
         SockJSHandler sockJSHandler = SockJSHandler.create(vertx, options);
         sockJSHandler.socketHandler(socketHandler.get());
         router.route("/test/*").handler(sockJSHandler);
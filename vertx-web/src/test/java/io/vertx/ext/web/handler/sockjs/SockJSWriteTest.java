@@ -153,6 +153,26 @@ public class SockJSWriteTest extends SockJSTestBase {
     await();
   }
 
+  @Test
+  public void testXHRStreamingEscaping() throws Exception {
+    waitFor(2);
+    socketHandler = () -> socket -> {
+      socket.write(Buffer.buffer("\u00e9\u20ac\ud83d\ude00\n\"\u0001"), onSuccess(v -> {
+        complete();
+      }));
+    };
+    startServers();
+    client.post("/test/400/8ne8e94a/xhr_streaming", Buffer.buffer(), onSuccess(resp -> {
+      assertEquals(200, resp.statusCode());
+      resp.handler(buffer -> {
+        if (buffer.toString().equals("a[\"\\u00e9\\u20ac\\ud83d\\ude00\\n\\\"\\u0001\"]\n")) {
+          complete();
+        }
+      });
+    }));
+    await();
+  }
+
   @Test
   public void testXHRStreamingFailure() throws Exception {
     String expected = TestUtils.randomAlphaString(64);
@@ -196,6 +216,70 @@ public class SockJSWriteTest extends SockJSTestBase {
     await();
   }
 
+  @Test
+  public void testXHRPollingDropOldest() throws Exception {
+    waitFor(3);
+    options.setPendingWritesMaxSize(10).setPendingWritesOverflowPolicy(PendingWritesOverflowPolicy.DROP_OLDEST);
+    socketHandler = () -> socket -> {
+      socket.write(Buffer.buffer("foo"), onFailure(err -> {
+        complete();
+      }));
+      assertFalse(socket.writeQueueFull());
+      socket.write(Buffer.buffer("bar_baz_juu"), onSuccess(v -> {
+        complete();
+      }));
+      assertTrue(socket.writeQueueFull());
+    };
+    startServers();
+    Runnable[] task = new Runnable[1];
+    task[0] = () ->
+    client.post("/test/400/8ne8e94a/xhr", Buffer.buffer(), onSuccess(resp -> {
+      assertEquals(200, resp.statusCode());
+      resp.handler(buffer -> {
+        if (buffer.toString().equals("a[\"bar_baz_juu\"]\n")) {
+          complete();
+        } else {
+          task[0].run();
+        }
+      });
+    }));
+    task[0].run();
+    await();
+  }
+
+  @Test
+  public void testXHRPollingCloseWhenFull() throws Exception {
+    waitFor(4);
+    options.setPendingWritesMaxSize(10).setPendingWritesOverflowPolicy(PendingWritesOverflowPolicy.CLOSE);
+    socketHandler = () -> socket -> {
+      socket.endHandler(v -> {
+        complete();
+      });
+      socket.write(Buffer.buffer("foo"), onFailure(err -> {
+        complete();
+      }));
+      socket.write(Buffer.buffer("bar_baz_juu"), onFailure(err -> {
+        complete();
+      }));
+    };
+    startServers();
+    Runnable[] task = new Runnable[1];
+    task[0] = () ->
+    client.post("/test/400/8ne8e94a/xhr", Buffer.buffer(), onSuccess(resp -> {
+      assertEquals(200, resp.statusCode());
+      resp.handler(buffer -> {
+        if (buffer.toString().equals("o\n")) {
+          task[0].run();
+        } else {
+          assertEquals("c[3000,\"Go away!\"]\n", buffer.toString());
+          complete();
+        }
+      });
+    }));
+    task[0].run();
+    await();
+  }
+
   @Test
   public void testXHRPollingClose() throws Exception {
     // Take 5 seconds which is the hearbeat timeout
@@ -1,10 +1,13 @@
 package io.vertx.ext.web.impl;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import io.vertx.core.http.HttpServerRequest;
 import io.vertx.ext.web.ParsedHeaderValue;
 
 public class ParsableHeaderValueTest {
@@ -34,4 +37,20 @@ public class ParsableHeaderValueTest {
     assertFalse(headerValue.isMatchedBy(value));
   }
   
+  @Test
+  public void testHeadersAreParsedOnFirstAccess() {
+    HttpServerRequest request = mock(HttpServerRequest.class);
+    when(request.getHeader("Accept")).thenReturn("text/html;q=0.5, application/json");
+    ParsableHeaderValuesContainer container = new ParsableHeaderValuesContainer(request);
+    verify(request, never()).getHeader(anyString());
+
+    assertEquals("application/json", container.accept().get(0).value());
+    assertSame(container.accept(), container.accept());
+    verify(request, times(1)).getHeader("Accept");
+    verify(request, never()).getHeader("Accept-Language");
+
+    assertTrue(container.acceptLanguage().isEmpty());
+    assertEquals("", container.contentType().rawValue());
+  }
+
 }
@@ -141,6 +141,47 @@ public class ClusteredSessionHandlerTest extends SessionHandlerTestBase {
     assertEquals(session.id(), session2.id());
   }
 
+  @Test
+  public void testSessionSerializationLarge() {
+    SharedDataSessionImpl session = (SharedDataSessionImpl)store.createSession(123);
+    stuffSession(session);
+    String large = TestUtils.randomAlphaString(100).concat(TestUtils.randomAlphaString(100));
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      sb.append(large);
+    }
+    session.put("large", sb.toString());
+    Buffer buffer = Buffer.buffer();
+    session.writeToBuffer(buffer);
+    SharedDataSessionImpl session2 = (SharedDataSessionImpl)store.createSession(0);
+    assertEquals(buffer.length(), session2.readFromBuffer(0, buffer));
+    checkSession(session2);
+    assertEquals(sb.toString(), session2.get("large"));
+  }
+
+  @Test
+  public void testSessionSerializationLegacyFormat() {
+    // a session written by a previous version
+    byte[] id = "legacy".getBytes();
+    byte[] key = "somestring".getBytes();
+    byte[] value = "wibble".getBytes();
+    Buffer buffer = Buffer.buffer()
+      .appendInt(id.length).appendBytes(id)
+      .appendLong(123)
+      .appendLong(456)
+      .appendInt(7)
+      .appendInt(1)
+      .appendInt(key.length).appendBytes(key)
+      .appendByte((byte) 9).appendInt(value.length).appendBytes(value);
+    SharedDataSessionImpl session = (SharedDataSessionImpl)store.createSession(0);
+    assertEquals(buffer.length(), session.readFromBuffer(0, buffer));
+    assertEquals("legacy", session.id());
+    assertEquals(123, session.timeout());
+    assertEquals(456, session.lastAccessed());
+    assertEquals(7, session.version());
+    assertEquals("wibble", session.get("somestring"));
+  }
+
   private void stuffSession(Session session) {
     session.put("somelong", 123456L);
     session.put("someint", 1234);
@@ -180,6 +221,67 @@ public class ClusteredSessionHandlerTest extends SessionHandlerTestBase {
     long val = doTestSessionRetryTimeout();
     assertTrue(String.valueOf(val), val >= 3000 && val < 5000);
   }
+
+  @Test
+  public void testNearCache() throws Exception {
+    SessionStore store1 = ClusteredSessionStore.create(vertices[0], ClusteredSessionStore.DEFAULT_SESSION_MAP_NAME, 3000, 100);
+    SessionStore store2 = ClusteredSessionStore.create(vertices[1], ClusteredSessionStore.DEFAULT_SESSION_MAP_NAME, 3000, 100);
+    Session session = store1.createSession(30000);
+    session.put("foo", "bar");
+
+    CountDownLatch latch = new CountDownLatch(1);
+    store1.put(session, onSuccess(v -> store1.get(session.id(), onSuccess(cached -> {
+      // served from the near cache, every request gets its own copy
+      assertNotSame(session, cached);
+      assertEquals("bar", cached.get("foo"));
+      store2.get(session.id(), onSuccess(remote -> {
+        assertNotSame(session, remote);
+        assertEquals("bar", remote.get("foo"));
+        remote.put("foo", "baz");
+        store2.put(remote, onSuccess(v2 -> latch.countDown()));
+      }));
+    }))));
+    awaitLatch(latch);
+
+    // the change on the other node evicts the cached session
+    AtomicReference<Session> current = new AtomicReference<>();
+    vertices[0].setPeriodic(10, id -> store1.get(session.id(), onSuccess(s -> {
+      if ("baz".equals(s.get("foo"))) {
+        vertices[0].cancelTimer(id);
+        current.set(s);
+      }
+    })));
+    assertWaitUntil(() -> current.get() != null);
+    assertNotSame(session, current.get());
+
+    store1.close();
+    store2.close();
+  }
+
+  @Test
+  public void testNearCacheStaleVersion() throws Exception {
+    SessionStore store = ClusteredSessionStore.create(vertices[0], ClusteredSessionStore.DEFAULT_SESSION_MAP_NAME, 3000, 100);
+    Session session = store.createSession(30000);
+    session.put("foo", "bar");
+
+    store.put(session, onSuccess(v -> store.get(session.id(), onSuccess(first -> store.get(session.id(), onSuccess(second -> {
+      assertNotSame(first, second);
+      first.put("foo", "first");
+      second.put("foo", "second");
+      store.put(first, onSuccess(v2 -> {
+        // the second copy was loaded before the first one was stored
+        store.put(second, onFailure(err -> {
+          // touching the stale copy does not overwrite the newer session either
+          store.touch(second, onSuccess(v3 -> store.get(session.id(), onSuccess(stored -> {
+            assertEquals("first", stored.get("foo"));
+            store.close();
+            testComplete();
+          }))));
+        }));
+      }));
+    }))))));
+    await();
+  }
 }
 
 
@@ -16,9 +16,14 @@
 
 package io.vertx.ext.web.sstore;
 
+import io.vertx.ext.web.Session;
 import io.vertx.ext.web.handler.SessionHandlerTestBase;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -34,4 +39,36 @@ public class LocalSessionHandlerTest extends SessionHandlerTestBase {
   public void testRetryTimeout() throws Exception {
     assertTrue(doTestSessionRetryTimeout() < 3000);
   }
+
+  @Test
+  public void testReaperRemovesOnlyExpiredSessions() throws Exception {
+    store.close();
+    store = LocalSessionStore.create(vertx, "reaper-test", 50);
+
+    Session shortLived = store.createSession(100);
+    Session longLived = store.createSession(60_000);
+    Session accessed = store.createSession(300);
+    CountDownLatch latch = new CountDownLatch(3);
+    for (Session session : Arrays.asList(shortLived, longLived, accessed)) {
+      store.put(session, onSuccess(v -> latch.countDown()));
+    }
+    awaitLatch(latch);
+
+    assertWaitUntil(() -> get(shortLived.id()) == null);
+    // the session keeps being used after its initial expiration time
+    long end = System.currentTimeMillis() + 600;
+    while (System.currentTimeMillis() < end) {
+      accessed.setAccessed();
+      Thread.sleep(50);
+    }
+    assertNotNull(get(accessed.id()));
+    assertWaitUntil(() -> get(accessed.id()) == null);
+    assertNotNull(get(longLived.id()));
+  }
+
+  private Session get(String id) {
+    AtomicReference<Session> session = new AtomicReference<>();
+    store.get(id, res -> session.set(res.result()));
+    return session.get();
+  }
 }
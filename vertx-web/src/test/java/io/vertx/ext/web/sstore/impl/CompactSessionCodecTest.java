@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Red Hat, Inc.
+ *
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  and Apache License v2.0 which accompanies this distribution.
+ *
+ *  The Eclipse Public License is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ *
+ *  The Apache License v2.0 is available at
+ *  http://www.opensource.org/licenses/apache2.0.php
+ *
+ *  You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.ext.web.sstore.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.impl.ClusterSerializable;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CompactSessionCodecTest {
+
+  private final CompactSessionCodec codec = new CompactSessionCodec();
+
+  @Test
+  public void testEncodeDecode() {
+    Map<String, Object> data = new HashMap<>();
+    data.put("long", -123456789L);
+    data.put("int", 1234);
+    data.put("short", (short) -12);
+    data.put("byte", (byte) 7);
+    data.put("double", 1.5d);
+    data.put("float", -2.5f);
+    data.put("char", 'é');
+    data.put("true", true);
+    data.put("false", false);
+    data.put("string", "wibble");
+    data.put("buffer", Buffer.buffer("buffer"));
+    data.put("bytes", new byte[]{1, 2, 3});
+    data.put("json", new JsonObject().put("foo", "bar"));
+
+    Buffer buffer = Buffer.buffer("prefix");
+    codec.encode(data, buffer);
+    Map<String, Object> decoded = new HashMap<>();
+    assertEquals(buffer.length(), codec.decode(buffer, "prefix".length(), decoded));
+
+    assertEquals(data.size(), decoded.size());
+    assertEquals(-123456789L, decoded.get("long"));
+    assertEquals(1234, decoded.get("int"));
+    assertEquals((short) -12, decoded.get("short"));
+    assertEquals((byte) 7, decoded.get("byte"));
+    assertEquals(1.5d, decoded.get("double"));
+    assertEquals(-2.5f, decoded.get("float"));
+    assertEquals('é', decoded.get("char"));
+    assertEquals(true, decoded.get("true"));
+    assertEquals(false, decoded.get("false"));
+    assertEquals("wibble", decoded.get("string"));
+    assertEquals(Buffer.buffer("buffer"), decoded.get("buffer"));
+    assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) decoded.get("bytes"));
+    assertEquals(new JsonObject().put("foo", "bar"), decoded.get("json"));
+  }
+
+  @Test
+  public void testBackReferences() {
+    Map<String, Object> data = new HashMap<>();
+    data.put("first", new Counter(1));
+    data.put("second", new Counter(2));
+    data.put("__vertx.userHolder", "dictionary key");
+
+    Buffer buffer = Buffer.buffer();
+    codec.encode(data, buffer);
+    String encoded = buffer.toString(StandardCharsets.ISO_8859_1);
+    // the class name is written once, then referred to, and the dictionary keys are never written
+    assertEquals(encoded.indexOf(Counter.class.getName()), encoded.lastIndexOf(Counter.class.getName()));
+    assertTrue(encoded.contains(Counter.class.getName()));
+    assertFalse(encoded.contains("__vertx.userHolder"));
+
+    Map<String, Object> decoded = new HashMap<>();
+    assertEquals(buffer.length(), codec.decode(buffer, 0, decoded));
+    assertEquals(1, ((Counter) decoded.get("first")).value);
+    assertEquals(2, ((Counter) decoded.get("second")).value);
+    assertEquals("dictionary key", decoded.get("__vertx.userHolder"));
+  }
+
+  @Test
+  public void testDeflateThreshold() {
+    Buffer small = Buffer.buffer();
+    codec.encode(data(CompactSessionCodec.COMPRESSION_THRESHOLD / 2), small);
+    assertEquals(0, small.getByte(0));
+
+    Map<String, Object> data = data(CompactSessionCodec.COMPRESSION_THRESHOLD * 4);
+    Buffer large = Buffer.buffer();
+    codec.encode(data, large);
+    assertEquals(1, large.getByte(0));
+    assertTrue(large.length() < CompactSessionCodec.COMPRESSION_THRESHOLD);
+
+    Map<String, Object> decoded = new HashMap<>();
+    assertEquals(large.length(), codec.decode(large, 0, decoded));
+    assertEquals(data, decoded);
+  }
+
+  @Test
+  public void testTruncated() {
+    for (int size : new int[]{16, CompactSessionCodec.COMPRESSION_THRESHOLD * 4}) {
+      Buffer buffer = Buffer.buffer();
+      codec.encode(data(size), buffer);
+      try {
+        codec.decode(buffer.getBuffer(0, buffer.length() - 1), 0, new HashMap<>());
+        fail("Expected a truncated session of " + size + " bytes to be rejected");
+      } catch (IllegalStateException expected) {
+      }
+    }
+  }
+
+  private static Map<String, Object> data(int size) {
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < size) {
+      sb.append("abcdefgh");
+    }
+    Map<String, Object> data = new HashMap<>();
+    data.put("value", sb.toString());
+    return data;
+  }
+
+  public static class Counter implements ClusterSerializable {
+
+    int value;
+
+    public Counter() {
+    }
+
+    Counter(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public void writeToBuffer(Buffer buffer) {
+      buffer.appendInt(value);
+    }
+
+    @Override
+    public int readFromBuffer(int pos, Buffer buffer) {
+      value = buffer.getInt(pos);
+      return pos + 4;
+    }
+  }
+}